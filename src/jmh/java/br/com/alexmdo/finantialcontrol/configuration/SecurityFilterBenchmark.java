@@ -0,0 +1,88 @@
+package br.com.alexmdo.finantialcontrol.configuration;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.alexmdo.finantialcontrol.domain.auth.JwtProperties;
+import br.com.alexmdo.finantialcontrol.domain.auth.PrincipalCache;
+import br.com.alexmdo.finantialcontrol.domain.auth.TokenRevocations;
+import br.com.alexmdo.finantialcontrol.domain.auth.TokenService;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Authenticated requests per millisecond through the security filter alone: token
+ * verification, principal lookup (a principal cache hit, or the token claims when
+ * stateless) and setting the security context. The repository is a stub that only
+ * answers findByEmail, so no database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SecurityFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean statelessPrincipal;
+
+    private SecurityConfiguration.SecurityFilter securityFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        var jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("benchmark-secret");
+        jwtProperties.setKeyId("k1");
+        jwtProperties.setRetiredKeys(Map.of());
+        var tokenService = new TokenService(jwtProperties);
+
+        var user = new User(1L, "John", "Doe", "johndoe@example.com", "password");
+        var userRepository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByEmail")) {
+                        return Optional.of(user);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        securityFilter = new SecurityConfiguration.SecurityFilter(
+                tokenService,
+                userRepository,
+                new PrincipalCache(10_000, Duration.ofMinutes(5), new SimpleMeterRegistry()),
+                new TokenRevocations());
+        ReflectionTestUtils.setField(securityFilter, "statelessPrincipal", statelessPrincipal);
+        authorization = "Bearer " + tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/users/me/accounts");
+        request.addHeader("Authorization", authorization);
+        try {
+            securityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package br.com.alexmdo.finantialcontrol.domain;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import br.com.alexmdo.finantialcontrol.domain.account.Account;
+import br.com.alexmdo.finantialcontrol.domain.account.AccountMapper;
+import br.com.alexmdo.finantialcontrol.domain.account.AccountType;
+import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountCreateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountDto;
+import br.com.alexmdo.finantialcontrol.domain.category.Category;
+import br.com.alexmdo.finantialcontrol.domain.category.CategoryMapper;
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryCreateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryDto;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCard;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCardBrand;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCardMapper;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardCreateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardDto;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+
+/**
+ * Entity to DTO and request to entity conversions done on every read and write of the
+ * account, credit card and category endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    private final AccountMapper accountMapper = new AccountMapper();
+    private final CreditCardMapper creditCardMapper = new CreditCardMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+
+    private User user;
+    private Account account;
+    private CreditCard creditCard;
+    private Category category;
+    private AccountCreateRequestDto accountCreateRequest;
+    private CreditCardCreateRequestDto creditCardCreateRequest;
+    private CategoryCreateRequestDto categoryCreateRequest;
+
+    @Setup
+    public void setUp() {
+        user = new User(1L, "John", "Doe", "johndoe@example.com", "password");
+        account = new Account(10L, new BigDecimal("1500.00"), "Bank", "Checking", AccountType.CHECKING_ACCOUNT,
+                "Blue", "bank", false, user);
+        creditCard = new CreditCard(20L, new BigDecimal("5000.00"), "Gold", CreditCardBrand.VISA, 5, 15, false, account);
+        category = new Category(30L, "Groceries", "Green", "cart", Category.Type.EXPENSE, user);
+        accountCreateRequest = new AccountCreateRequestDto(new BigDecimal("1500.00"), "Bank", "Checking",
+                AccountType.CHECKING_ACCOUNT, "Blue", "bank", 1L);
+        creditCardCreateRequest = new CreditCardCreateRequestDto(new BigDecimal("5000.00"), "Gold",
+                CreditCardBrand.VISA, 5, 15, 10L);
+        categoryCreateRequest = new CategoryCreateRequestDto("Groceries", "Green", "cart", Category.Type.EXPENSE);
+    }
+
+    @Benchmark
+    public AccountDto accountToDto() {
+        return accountMapper.toDto(account);
+    }
+
+    @Benchmark
+    public Account accountToEntity() {
+        return accountMapper.toEntity(accountCreateRequest);
+    }
+
+    @Benchmark
+    public CreditCardDto creditCardToDto() {
+        return creditCardMapper.toDto(creditCard);
+    }
+
+    @Benchmark
+    public CreditCard creditCardToEntity() {
+        return creditCardMapper.toEntity(creditCardCreateRequest);
+    }
+
+    @Benchmark
+    public CategoryDto categoryToDto() {
+        return categoryMapper.toDto(category);
+    }
+
+    @Benchmark
+    public Category categoryToEntity() {
+        return categoryMapper.toEntity(categoryCreateRequest, user);
+    }
+
+}
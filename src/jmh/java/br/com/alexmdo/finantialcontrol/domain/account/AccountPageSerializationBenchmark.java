@@ -0,0 +1,55 @@
+package br.com.alexmdo.finantialcontrol.domain.account;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountDto;
+
+/**
+ * Serialization of the GET /api/users/me/accounts body, a Page of AccountDto, with an
+ * ObjectMapper built the way Spring Boot builds the one MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AccountPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private Page<AccountDto> page;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        var accounts = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> new AccountDto(id, new BigDecimal("1500.00"), "Bank " + id, "Account " + id,
+                        AccountType.CHECKING_ACCOUNT, "Blue", "bank", false, 0L))
+                .toList();
+        page = new PageImpl<>(accounts, PageRequest.of(0, pageSize), 1_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+}
@@ -0,0 +1,71 @@
+package br.com.alexmdo.finantialcontrol.domain.auth;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+
+/**
+ * Verify throughput of the key ring against building the algorithm and verifier on
+ * every call, which is what TokenService did before verifiers were cached per key id,
+ * plus the issuing and subject lookup done on every login and authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret";
+
+    private TokenService tokenService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        var jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        jwtProperties.setKeyId("k2");
+        jwtProperties.setRetiredKeys(Map.of("k1", "retired-secret"));
+        tokenService = new TokenService(jwtProperties);
+        user = new User(1L, "John", "Doe", "johndoe@example.com", "password");
+        token = tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String getSubject() {
+        return tokenService.getSubject(token);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyPerCallVerifier() {
+        var algorithm = Algorithm.HMAC256(SECRET);
+        return JWT.require(algorithm)
+                .withIssuer("Finantial Control")
+                .build()
+                .verify(token);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyKeyRing() {
+        return tokenService.verify(token);
+    }
+
+}
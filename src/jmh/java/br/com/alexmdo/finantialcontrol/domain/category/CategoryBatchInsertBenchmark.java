@@ -0,0 +1,87 @@
+package br.com.alexmdo.finantialcontrol.domain.category;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.alexmdo.finantialcontrol.FinantialcontrolApplication;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
+
+/**
+ * Rows per second for creating categories one at a time, each in its own transaction as
+ * POST /api/users/me/categories does, against the batch path that saves them all in one
+ * transaction and lets Hibernate send JDBC batches. Runs on the test profile's H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CategoryBatchInsertBenchmark {
+
+    private static final int ROWS = 200;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private CategoryRepository categoryRepository;
+    private TransactionTemplate transactionTemplate;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(FinantialcontrolApplication.class)
+                .properties("server.port=0")
+                .profiles("test")
+                .run();
+        categoryRepository = context.getBean(CategoryRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        user = context.getBean(UserRepository.class)
+                .save(new User(null, "John", "Doe", "benchmark@example.com", "password"));
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCategories() {
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveOneByOne() {
+        for (int i = 0; i < ROWS; i++) {
+            var category = newCategory();
+            transactionTemplate.executeWithoutResult(status -> categoryRepository.save(category));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveAllBatched() {
+        var categories = IntStream.range(0, ROWS).mapToObj(i -> newCategory()).toList();
+        transactionTemplate.executeWithoutResult(status -> categoryRepository.saveAll(categories));
+    }
+
+    private Category newCategory() {
+        return new Category(null, "Category " + sequence.incrementAndGet(), "Blue", "piggy-bank", Category.Type.EXPENSE, user);
+    }
+
+}
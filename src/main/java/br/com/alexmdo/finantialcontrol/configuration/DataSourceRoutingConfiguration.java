@@ -0,0 +1,77 @@
+package br.com.alexmdo.finantialcontrol.configuration;
+
+import br.com.alexmdo.finantialcontrol.infra.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+
+/**
+ * Replaces the single auto-configured pool once {@code app.datasource.replicas[0].jdbc-url}
+ * is set. The primary is still built from {@code spring.datasource.*}; each replica starts
+ * from a copy of the primary's Hikari settings and overrides what it declares under
+ * {@code app.datasource.replicas[n]}. Every pool publishes the hikaricp metrics tagged
+ * with its own pool name.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replicas[0].jdbc-url")
+@Log4j2
+public class DataSourceRoutingConfiguration {
+
+    private static final String REPLICAS_PREFIX = "app.datasource.replicas";
+
+    @Value("${app.datasource.replica-lag-tolerance:2s}")
+    private Duration replicaLagTolerance;
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment,
+                                                            MeterRegistry meterRegistry) {
+        var binder = Binder.get(environment);
+        var metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        var primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(metricsTrackerFactory);
+
+        var replicas = new ArrayList<DataSource>();
+        for (int i = 0; environment.containsProperty(REPLICAS_PREFIX + "[" + i + "].jdbc-url"); i++) {
+            var replica = new HikariConfig();
+            primary.copyStateTo(replica);
+            binder.bind(REPLICAS_PREFIX + "[" + i + "]", Bindable.ofInstance(replica));
+            replica.setPoolName(ReplicaRoutingDataSource.replicaKey(i));
+            replicas.add(new HikariDataSource(replica));
+        }
+
+        log.info("Routing read-only transactions to {} replica(s), read-your-writes window of {}",
+                replicas.size(), replicaLagTolerance);
+        return new ReplicaRoutingDataSource(primary, replicas, replicaLagTolerance, meterRegistry);
+    }
+
+    /**
+     * The routing key depends on the transaction's read-only flag, which is only set after
+     * the transaction manager has asked for a connection; the proxy defers the real
+     * connection to the first statement.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+}
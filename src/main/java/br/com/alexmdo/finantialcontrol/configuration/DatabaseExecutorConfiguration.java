@@ -0,0 +1,56 @@
+package br.com.alexmdo.finantialcontrol.configuration;
+
+import br.com.alexmdo.finantialcontrol.infra.DatabaseExecutor;
+import br.com.alexmdo.finantialcontrol.infra.MonitoredThreadPools;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@Log4j2
+public class DatabaseExecutorConfiguration {
+
+    private static final String EXECUTOR_NAME = "database";
+
+    @Value("${app.executor.database.mode:platform}")
+    private String mode;
+
+    @Value("${app.executor.database.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int poolSize;
+
+    @Value("${app.executor.database.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean
+    public DatabaseExecutor databaseExecutor(MeterRegistry meterRegistry) {
+        var executorService = "virtual".equalsIgnoreCase(mode)
+                ? virtualThreadExecutor(meterRegistry)
+                : platformThreadExecutor(meterRegistry);
+        // Tasks see the caller's security context, so replica routing can tell whose request it serves
+        return new DatabaseExecutor(new DelegatingSecurityContextExecutorService(executorService));
+    }
+
+    private ExecutorService platformThreadExecutor(MeterRegistry meterRegistry) {
+        log.info("Database executor running on {} platform threads with a queue of {}", poolSize, queueCapacity);
+        return MonitoredThreadPools.bounded(EXECUTOR_NAME, poolSize, queueCapacity, meterRegistry);
+    }
+
+    private ExecutorService virtualThreadExecutor(MeterRegistry meterRegistry) {
+        // Resolved reflectively so the build keeps targeting Java 17; on older runtimes we fall back to platform threads
+        try {
+            var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            log.info("Database executor running on virtual threads");
+            return MonitoredThreadPools.monitor(EXECUTOR_NAME, (ExecutorService) factory.invoke(null), meterRegistry);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on this runtime, falling back to platform threads");
+            return platformThreadExecutor(meterRegistry);
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package br.com.alexmdo.finantialcontrol.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * BCrypt strength is picked at startup: the highest strength whose median hash time, after
+ * a warm-up, stays within the target. Set {@code app.security.password.strength} to pin it.
+ * Hashes carry an {id} prefix; legacy unprefixed or weaker hashes are upgraded by
+ * AuthService on the next successful login.
+ */
+@Configuration
+@Log4j2
+public class PasswordEncoderConfiguration {
+
+    private static final String BCRYPT = "bcrypt";
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+    private static final int WARM_UP_HASHES = 3;
+    private static final int SAMPLES = 5;
+
+    @Value("${app.security.password.strength:0}")
+    private int strength;
+
+    @Value("${app.security.password.target-hash-time:100ms}")
+    private Duration targetHashTime;
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        var bcryptStrength = strength > 0 ? strength : calibrateStrength();
+        log.info("Hashing passwords with BCrypt strength {} ({})", bcryptStrength,
+                strength > 0 ? "configured" : "calibrated for " + targetHashTime.toMillis() + "ms");
+
+        var bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        var delegatingPasswordEncoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new TimedPasswordEncoder(delegatingPasswordEncoder, meterRegistry);
+    }
+
+    private int calibrateStrength() {
+        // Let the JIT compile the hashing code so the first strength is not measured cold
+        var warmUpEncoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        for (var i = 0; i < WARM_UP_HASHES; i++) {
+            warmUpEncoder.encode("calibration");
+        }
+
+        // Each extra round doubles the cost, so stop at the last strength that stays within the target
+        var calibrated = MIN_STRENGTH;
+        for (var candidate = MIN_STRENGTH; candidate <= MAX_STRENGTH; candidate++) {
+            var elapsed = medianHashTime(new BCryptPasswordEncoder(candidate));
+            log.debug("BCrypt strength {} takes {}ms per hash", candidate, elapsed.toMillis());
+            if (elapsed.compareTo(targetHashTime) > 0) {
+                break;
+            }
+            calibrated = candidate;
+        }
+        return calibrated;
+    }
+
+    private static Duration medianHashTime(PasswordEncoder encoder) {
+        var samples = new long[SAMPLES];
+        for (var i = 0; i < SAMPLES; i++) {
+            var start = System.nanoTime();
+            encoder.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Duration.ofNanos(samples[SAMPLES / 2]);
+    }
+
+    private static class TimedPasswordEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder delegate;
+        private final Timer encodeTimer;
+        private final Timer matchesTimer;
+
+        TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+            this.delegate = delegate;
+            this.encodeTimer = hashingTimer("encode", meterRegistry);
+            this.matchesTimer = hashingTimer("matches", meterRegistry);
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return encodeTimer.record(() -> delegate.encode(rawPassword));
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return Boolean.TRUE.equals(matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+
+        private static Timer hashingTimer(String operation, MeterRegistry meterRegistry) {
+            return Timer.builder("password.hashing")
+                    .description("Time spent hashing and verifying passwords")
+                    .tag("operation", operation)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+    }
+
+}
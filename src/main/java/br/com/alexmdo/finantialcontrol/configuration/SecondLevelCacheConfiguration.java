@@ -0,0 +1,37 @@
+package br.com.alexmdo.finantialcontrol.configuration;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Log4j2
+public class SecondLevelCacheConfiguration {
+
+    /**
+     * Publishes size, hit/miss, put and eviction counters for every Hibernate cache region as cache.* metrics.
+     * Per-region request counts are also available as hibernate.second.level.cache.* from the session factory statistics.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            var regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+            if (!(regionFactory instanceof JCacheRegionFactory jCacheRegionFactory)) {
+                log.warn("Second-level cache is not backed by JCache, region metrics are disabled");
+                return;
+            }
+
+            var cacheManager = jCacheRegionFactory.getCacheManager();
+            for (String cacheName : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, cacheManager.getCache(cacheName), Tags.empty());
+            }
+        };
+    }
+
+}
@@ -1,13 +1,23 @@
 package br.com.alexmdo.finantialcontrol.configuration;
 
+import br.com.alexmdo.finantialcontrol.domain.auth.PrincipalCache;
+import br.com.alexmdo.finantialcontrol.domain.auth.TokenRevocations;
 import br.com.alexmdo.finantialcontrol.domain.auth.TokenService;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
 import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
+import br.com.alexmdo.finantialcontrol.infra.FlightRecorderEvents;
+import br.com.alexmdo.finantialcontrol.infra.PrincipalLookupEvent;
+import br.com.alexmdo.finantialcontrol.infra.ReplicaRoutingDataSource;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
-import jakarta.servlet.ServletRequest;
-import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,21 +27,28 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.stereotype.Component;
-import org.springframework.web.filter.GenericFilterBean;
+import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfiguration {
 
+    static final String ADMIN = "ADMIN";
+
     private final SecurityFilter securityFilter;
 
     @Bean
@@ -39,8 +56,13 @@ public class SecurityConfiguration {
         return http.cors().and().csrf(csrf -> csrf.disable())
                 .sessionManagement(management -> management.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests()
+                // The request was authorized before the controller returned its future; the dispatch
+                // that writes the result must not depend on the token still being valid
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/auth").permitAll()
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**").permitAll()
+                // Metrics, statement statistics and flight recordings describe every user's traffic
+                .requestMatchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class)).hasRole(ADMIN)
                 .anyRequest().authenticated()
                 .and().addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
@@ -51,38 +73,81 @@ public class SecurityConfiguration {
         return configuration.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     public static void main(String[] args) {
         System.out.println(new BCryptPasswordEncoder().encode("123456"));
     }
 
     @Component
     @RequiredArgsConstructor
-    private static class SecurityFilter extends GenericFilterBean {
+    static class SecurityFilter extends OncePerRequestFilter {
 
         private final TokenService tokenService;
         private final UserRepository userRepository;
+        private final PrincipalCache principalCache;
+        private final TokenRevocations tokenRevocations;
+
+        @Value("${app.security.stateless-principal:false}")
+        private boolean statelessPrincipal;
+
+        @Value("${app.security.admin-emails:}")
+        private Set<String> adminEmails = Set.of();
 
         @Override
-        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
-            var token = getToken((HttpServletRequest) request);
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+            var token = getToken(request);
             if (token != null) {
-                var subject = tokenService.getSubject(token);
-                var userOptional = userRepository.findByEmail(subject);
-                if (userOptional.isPresent()) {
-                    var user = userOptional.get();
-                    var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                var decodedJWT = tokenService.verify(token);
+                var tokenVersion = tokenService.getTokenVersion(decodedJWT);
+                var userOptional = statelessPrincipal
+                        ? Optional.of(tokenService.toPrincipal(decodedJWT))
+                        : lookUpPrincipal(decodedJWT, tokenVersion)
+                        .filter(user -> user.getTokenVersion() == tokenVersion);
+                userOptional
+                        .filter(user -> !tokenRevocations.isRevoked(user.getId(), tokenVersion))
+                        .ifPresent(user -> {
+                            var authorities = statelessPrincipal ? tokenService.getAuthorities(decodedJWT) : user.getAuthorities();
+                            var authentication = new UsernamePasswordAuthenticationToken(user, null, withAdminRole(user, authorities));
+                            SecurityContextHolder.getContext().setAuthentication(authentication);
+                        });
             }
 
             chain.doFilter(request, response);
         }
 
+        private Optional<User> lookUpPrincipal(DecodedJWT decodedJWT, int tokenVersion) {
+            var userId = tokenService.getUserId(decodedJWT);
+            var event = new PrincipalLookupEvent();
+            event.begin();
+            var outcome = "error";
+            try {
+                var user = principalCache.get(
+                        decodedJWT.getSubject(),
+                        userId,
+                        tokenVersion,
+                        decodedJWT.getExpiresAtAsInstant(),
+                        email -> ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByEmail(email)));
+                outcome = user.isPresent() ? "found" : "not_found";
+                return user;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.userBucket = FlightRecorderEvents.userBucket(userId);
+                    event.outcome = outcome;
+                    event.commit();
+                }
+            }
+        }
+
+        private Collection<? extends GrantedAuthority> withAdminRole(User user, Collection<? extends GrantedAuthority> authorities) {
+            if (!adminEmails.contains(user.getEmail())) {
+                return authorities;
+            }
+
+            var adminAuthorities = new ArrayList<GrantedAuthority>(authorities);
+            adminAuthorities.add(new SimpleGrantedAuthority("ROLE_" + ADMIN));
+            return adminAuthorities;
+        }
+
         private String getToken(HttpServletRequest request) {
             var authorizationHeader = request.getHeader("Authorization");
             if (authorizationHeader == null || authorizationHeader.isEmpty()) {
@@ -0,0 +1,35 @@
+package br.com.alexmdo.finantialcontrol.configuration;
+
+import br.com.alexmdo.finantialcontrol.infra.SlowQueryLog;
+import br.com.alexmdo.finantialcontrol.infra.StatementTimingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Times the statements of the application's {@code dataSource}, whether it is the
+ * auto-configured pool or the replica routing proxy. Only that bean is wrapped, so the
+ * pools behind the routing proxy are not timed twice.
+ */
+@Configuration
+public class SlowQueryLogConfiguration {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor statementTimingDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new StatementTimingDataSource(dataSource, slowQueryLog.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+}
@@ -3,6 +3,7 @@ package br.com.alexmdo.finantialcontrol.domain.account;
 import java.math.BigDecimal;
 
 import br.com.alexmdo.finantialcontrol.domain.user.User;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -11,23 +12,30 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "accounts")
 @Table(name = "accounts")
 public class Account {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -56,7 +64,18 @@ public class Account {
     @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
+    /**
+     * Incremented on every update; guards concurrent writes and backs the resource ETag.
+     */
+    @Version
+    private long version;
+
     public Account(Long id) {
         this.id = id;
     }
+
+    public Account(Long id, BigDecimal initialAmount, String financialInstitution, String description,
+                   AccountType accountType, String color, String icon, boolean archived, User user) {
+        this(id, initialAmount, financialInstitution, description, accountType, color, icon, archived, user, 0);
+    }
 }
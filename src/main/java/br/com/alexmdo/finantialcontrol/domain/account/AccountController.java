@@ -4,11 +4,14 @@ import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountCreateRequestDt
 import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountDto;
 import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountUpdateRequestDto;
 import br.com.alexmdo.finantialcontrol.infra.BaseController;
+import br.com.alexmdo.finantialcontrol.infra.CursorPage;
+import br.com.alexmdo.finantialcontrol.infra.ETags;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -38,16 +41,16 @@ public class AccountController extends BaseController {
     @PutMapping("/{id}")
     public CompletableFuture<ResponseEntity<AccountDto>> updateAccountAsync(
             @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody AccountUpdateRequestDto updateRequestDto) {
         return accountService
-                .getAccountByIdAndUserAsync(id, super.getPrincipal())
-                .thenCompose(existingAccount -> {
-                    var updatedAccount = accountMapper.updateEntity(existingAccount, updateRequestDto);
-                    return accountService.updateAccountAsync(updatedAccount);
+                .updateAccountForUserAsync(id, super.getPrincipal(), existingAccount -> {
+                    ETags.requireMatch(ifMatch, ETags.of(existingAccount.getId(), existingAccount.getVersion()));
+                    return accountMapper.updateEntity(existingAccount, updateRequestDto);
                 })
                 .thenApply(updatedAccount -> {
                     var accountDto = accountMapper.toDto(updatedAccount);
-                    return ResponseEntity.ok(accountDto);
+                    return ETags.ok(ETags.of(accountDto.id(), accountDto.version()), accountDto);
                 });
     }
 
@@ -59,32 +62,43 @@ public class AccountController extends BaseController {
     }
 
     @GetMapping
-    public CompletableFuture<ResponseEntity<Page<AccountDto>>> getAccountsAsync(Pageable pageable) {
+    public CompletableFuture<ResponseEntity<Page<AccountDto>>> getAccountsAsync(
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var user = super.getPrincipal();
         return accountService
-                .getAllAccountsByUserAsync(pageable, super.getPrincipal())
-                .thenApply(accounts -> {
-                    var accountDtoPage = accounts.map(accountMapper::toDto);
-                    return ResponseEntity.ok(accountDtoPage);
-                });
+                .getAccountsVersionByUserAsync(user)
+                .thenCompose(version -> ETags.conditionalGet(ifNoneMatch, version,
+                        () -> accountService.getAllAccountsByUserAsync(pageable, user)));
+    }
+
+    @GetMapping(params = "limit")
+    public CompletableFuture<ResponseEntity<CursorPage<AccountDto>>> getAccountsAfterAsync(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam("limit") Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var pageLimit = CursorPage.normalizeLimit(limit);
+        var afterId = CursorPage.decode(after);
+        var user = super.getPrincipal();
+        return accountService
+                .getAccountsVersionByUserAsync(user)
+                .thenCompose(version -> ETags.conditionalGet(ifNoneMatch, version,
+                        () -> accountService
+                                .getAllAccountsByUserAfterAsync(afterId, pageLimit + 1, user)
+                                .thenApply(accountDtos -> CursorPage.of(accountDtos, pageLimit, AccountDto::id))));
     }
 
     @GetMapping("/{id}")
     public CompletableFuture<ResponseEntity<AccountDto>> getAccountByIdAsync(@PathVariable("id") Long id) {
         return accountService
-                .getAccountByIdAndUserAsync(id, super.getPrincipal())
-                .thenApply(existingAccount -> {
-                    var accountDto = accountMapper.toDto(existingAccount);
-                    return ResponseEntity.ok(accountDto);
-                });
+                .getAccountDtoByIdAndUserAsync(id, super.getPrincipal())
+                .thenApply(accountDto -> ETags.ok(ETags.of(accountDto.id(), accountDto.version()), accountDto));
     }
 
     @PostMapping("/{id}/archive")
     public CompletableFuture<ResponseEntity<AccountDto>> archiveAccountAsync(@PathVariable("id") Long id) {
         return accountService
                 .archiveAccountForUserAsync(id, super.getPrincipal())
-                .thenApply(archivedAccount -> {
-                    var accountDto = accountMapper.toDto(archivedAccount);
-                    return ResponseEntity.ok(accountDto);
-                });
+                .thenApply(accountDto -> ETags.ok(ETags.of(accountDto.id(), accountDto.version()), accountDto));
     }
 }
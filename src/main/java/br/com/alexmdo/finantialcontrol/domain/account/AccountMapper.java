@@ -19,7 +19,8 @@ public class AccountMapper {
                 account.getAccountType(),
                 account.getColor(),
                 account.getIcon(),
-                account.isArchived()
+                account.isArchived(),
+                account.getVersion()
         );
     }
 
@@ -1,17 +1,69 @@
 package br.com.alexmdo.finantialcontrol.domain.account;
 
+import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountDto;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.infra.CollectionVersion;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
+    String ACCOUNT_DTO_SELECT = """
+            select new br.com.alexmdo.finantialcontrol.domain.account.dto.AccountDto(
+                a.id, a.initialAmount, a.financialInstitution, a.description, a.accountType, a.color, a.icon, a.archived, a.version)
+            from Account a
+            """;
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Account> findByIdAndUser(Long id, User user);
 
-    Page<Account> findAllByUser(Pageable pageable, User user);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(ACCOUNT_DTO_SELECT + "where a.id = :id and a.user = :user")
+    Optional<AccountDto> findDtoByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(value = ACCOUNT_DTO_SELECT + "where a.user = :user",
+            countQuery = "select count(a) from Account a where a.user = :user")
+    Page<AccountDto> findAllDtoByUser(Pageable pageable, @Param("user") User user);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(ACCOUNT_DTO_SELECT + "where a.user = :user and a.id > :id order by a.id")
+    List<AccountDto> findAllDtoByUserAndIdGreaterThan(@Param("user") User user, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+            select new br.com.alexmdo.finantialcontrol.infra.CollectionVersion(count(a), coalesce(sum(a.version), 0L), coalesce(sum(a.id), 0L))
+            from Account a
+            where a.user = :user
+            """)
+    CollectionVersion findCollectionVersionByUser(@Param("user") User user);
+
+    boolean existsByIdAndUser(Long id, User user);
+
+    /**
+     * Archives the account in a single statement and returns the number of rows touched,
+     * zero when the user has no account with that id.
+     */
+    @Modifying
+    @Query("update Account a set a.archived = true, a.version = a.version + 1 where a.id = :id and a.user = :user")
+    int archiveByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
+    /**
+     * Deletes the account only if it is already archived, returning the number of rows removed.
+     */
+    @Modifying
+    @Query("delete from Account a where a.id = :id and a.user = :user and a.archived = true")
+    int deleteArchivedByIdAndUser(@Param("id") Long id, @Param("user") User user);
 
 }
@@ -1,20 +1,27 @@
 package br.com.alexmdo.finantialcontrol.domain.account;
 
+import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountDto;
 import br.com.alexmdo.finantialcontrol.domain.account.exception.AccountNotArchivedException;
 import br.com.alexmdo.finantialcontrol.domain.account.exception.AccountNotFoundException;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
 import br.com.alexmdo.finantialcontrol.domain.user.UserService;
-import br.com.alexmdo.finantialcontrol.infra.BusinessException;
+import br.com.alexmdo.finantialcontrol.infra.CollectionVersion;
+import br.com.alexmdo.finantialcontrol.infra.LoadShedding;
+import br.com.alexmdo.finantialcontrol.infra.TransactionalAsyncTemplate;
+import br.com.alexmdo.finantialcontrol.infra.VersionMismatchException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
 
 @Service
 @RequiredArgsConstructor
@@ -23,137 +30,135 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final UserService userService;
+    private final TransactionalAsyncTemplate transactionalAsyncTemplate;
+    private final LoadShedding loadShedding;
 
-    @Transactional
     @CircuitBreaker(name = "createAccount", fallbackMethod = "createAccountFallback")
     @TimeLimiter(name = "createAccount")
     public CompletableFuture<Account> createAccountAsync(Account account) {
-        return userService
-                .getUserByIdAndUserAsync(account.getUser().getId(), account.getUser())
-                .thenApply(existingAccount -> {
-                    account.setUser(existingAccount);
-                    return accountRepository.save(account);
-                });
+        return transactionalAsyncTemplate.supplyAsync(() -> {
+            account.setUser(userService.findUserByIdAndUser(account.getUser().getId(), account.getUser()));
+            return accountRepository.save(account);
+        });
     }
 
-    @Transactional
+    /**
+     * Loads the account, applies the changes and saves it in one transaction, so the
+     * version the changes were checked against is the one the update is guarded by.
+     */
     @CircuitBreaker(name = "updateAccount", fallbackMethod = "updateAccountFallback")
     @TimeLimiter(name = "updateAccount")
-    public CompletableFuture<Account> updateAccountAsync(Account account) {
-        return CompletableFuture
-                .supplyAsync(() -> accountRepository.save(account));
+    public CompletableFuture<Account> updateAccountForUserAsync(Long id, User user, UnaryOperator<Account> changes) {
+        return transactionalAsyncTemplate
+                .supplyAsync(() -> accountRepository.save(changes.apply(findAccountByIdAndUser(id, user))));
     }
 
-    @Transactional
     @CircuitBreaker(name = "deleteAccountByUser", fallbackMethod = "deleteAccountByUserFallback")
     @TimeLimiter(name = "deleteAccountByUser")
     public CompletableFuture<Void> deleteAccountByUserAsync(Long id, User user) {
-        return getAccountByIdAndUserAsync(id, user)
-                .thenCompose(account -> {
-                    if (account.isArchived()) {
-                        return CompletableFuture.runAsync(() -> accountRepository.delete(account));
-                    } else {
-                        throw new AccountNotArchivedException("Cannot delete account. Archive it first.");
-                    }
-                });
+        return transactionalAsyncTemplate.runAsync(() -> {
+            if (accountRepository.deleteArchivedByIdAndUser(id, user) > 0) {
+                return;
+            }
+
+            // Nothing was deleted; only now is it worth a second statement to tell the caller why
+            if (!accountRepository.existsByIdAndUser(id, user)) {
+                throw new AccountNotFoundException("Account not found with id: " + id);
+            }
+            throw new AccountNotArchivedException("Cannot delete account. Archive it first.");
+        });
     }
 
-    @CircuitBreaker(name = "getAccountByIdAndUser", fallbackMethod = "getAccountByIdAndUserFallback")
-    @TimeLimiter(name = "getAccountByIdAndUser")
-    public CompletableFuture<Account> getAccountByIdAndUserAsync(Long id, User user) {
-        return CompletableFuture
-                .supplyAsync(() -> accountRepository.findByIdAndUser(id, user)
-                        .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id)));
+    @CircuitBreaker(name = "getAccountDtoByIdAndUser", fallbackMethod = "getAccountDtoByIdAndUserFallback")
+    @TimeLimiter(name = "getAccountDtoByIdAndUser")
+    public CompletableFuture<AccountDto> getAccountDtoByIdAndUserAsync(Long id, User user) {
+        return transactionalAsyncTemplate.supplyReadOnlyAsync(() -> accountRepository
+                .findDtoByIdAndUser(id, user)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id)));
     }
 
-    @Transactional
+    /**
+     * Archives the account with one conditional update and reads back the projection
+     * the endpoint answers with.
+     */
     @CircuitBreaker(name = "archiveAccountForUser", fallbackMethod = "archiveAccountForUserFallback")
     @TimeLimiter(name = "archiveAccountForUser")
-    public CompletableFuture<Account> archiveAccountForUserAsync(Long id, User user) {
-        return getAccountByIdAndUserAsync(id, user)
-                .thenCompose(existingAccount -> {
-                    existingAccount.setArchived(true);
-                    return CompletableFuture.supplyAsync(() -> accountRepository.save(existingAccount));
-                });
+    public CompletableFuture<AccountDto> archiveAccountForUserAsync(Long id, User user) {
+        return transactionalAsyncTemplate.supplyAsync(() -> {
+            if (accountRepository.archiveByIdAndUser(id, user) == 0) {
+                throw new AccountNotFoundException("Account not found with id: " + id);
+            }
+
+            return accountRepository.findDtoByIdAndUser(id, user)
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id));
+        });
     }
 
     @CircuitBreaker(name = "getAllAccountsByUser", fallbackMethod = "getAllAccountsByUserFallback")
     @TimeLimiter(name = "getAllAccountsByUser")
-    public CompletableFuture<Page<Account>> getAllAccountsByUserAsync(Pageable pageable, User user) {
-        return CompletableFuture
-                .supplyAsync(() -> accountRepository.findAllByUser(pageable, user));
+    public CompletableFuture<Page<AccountDto>> getAllAccountsByUserAsync(Pageable pageable, User user) {
+        return transactionalAsyncTemplate
+                .supplyReadOnlyAsync(() -> accountRepository.findAllDtoByUser(pageable, user));
+    }
+
+    @CircuitBreaker(name = "getAllAccountsByUserAfter", fallbackMethod = "getAllAccountsByUserAfterFallback")
+    @TimeLimiter(name = "getAllAccountsByUserAfter")
+    public CompletableFuture<List<AccountDto>> getAllAccountsByUserAfterAsync(Long afterId, int limit, User user) {
+        return transactionalAsyncTemplate
+                .supplyReadOnlyAsync(() -> accountRepository.findAllDtoByUserAndIdGreaterThan(user, afterId, PageRequest.ofSize(limit)));
+    }
+
+    /**
+     * Count, version sum and id sum of the user's accounts, used as the listing ETag.
+     */
+    @CircuitBreaker(name = "getAccountsVersionByUser", fallbackMethod = "getAccountsVersionByUserFallback")
+    @TimeLimiter(name = "getAccountsVersionByUser")
+    public CompletableFuture<CollectionVersion> getAccountsVersionByUserAsync(User user) {
+        return transactionalAsyncTemplate
+                .supplyReadOnlyAsync(() -> accountRepository.findCollectionVersionByUser(user));
+    }
+
+    /**
+     * Joins the caller's transaction; for use inside a {@link TransactionalAsyncTemplate} block.
+     */
+    public Account findAccountByIdAndUser(Long id, User user) {
+        return accountRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id));
     }
 
     public CompletableFuture<Account> createAccountFallback(Account account, Throwable throwable) {
-        // Fallback logic for createAccountAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for createAccountAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+        return loadShedding.fallback("createAccount", throwable);
     }
 
-    public CompletableFuture<Account> updateAccountFallback(Account account, Throwable throwable) {
-        // Fallback logic for updateAccountAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for updateAccountAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
+    public CompletableFuture<Account> updateAccountFallback(Long id, User user, UnaryOperator<Account> changes, Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            throw new VersionMismatchException("The account was modified by another request. Fetch it again and retry.");
         }
+        return loadShedding.fallback("updateAccount", throwable);
     }
 
     public CompletableFuture<Void> deleteAccountByUserFallback(Long id, User user, Throwable throwable) {
-        // Fallback logic for deleteAccountByUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for deleteAccountByUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+        return loadShedding.fallback("deleteAccountByUser", throwable);
     }
 
-    public CompletableFuture<Account> getAccountByIdAndUserFallback(Long id, User user, Throwable throwable) {
-        // Fallback logic for getAccountByIdAndUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for getAccountByIdAndUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+    public CompletableFuture<AccountDto> getAccountDtoByIdAndUserFallback(Long id, User user, Throwable throwable) {
+        return loadShedding.fallback("getAccountDtoByIdAndUser", throwable);
     }
 
-    public CompletableFuture<Account> archiveAccountForUserFallback(Long id, User user, Throwable throwable) {
-        // Fallback logic for archiveAccountForUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for archiveAccountForUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+    public CompletableFuture<AccountDto> archiveAccountForUserFallback(Long id, User user, Throwable throwable) {
+        return loadShedding.fallback("archiveAccountForUser", throwable);
     }
 
-    public CompletableFuture<Page<Account>> getAllAccountsByUserFallback(Pageable pageable, User user, Throwable throwable) {
-        // Fallback logic for getAllAccountsByUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for getAllAccountsByUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+    public CompletableFuture<Page<AccountDto>> getAllAccountsByUserFallback(Pageable pageable, User user, Throwable throwable) {
+        return loadShedding.fallback("getAllAccountsByUser", throwable);
+    }
+
+    public CompletableFuture<List<AccountDto>> getAllAccountsByUserAfterFallback(Long afterId, int limit, User user, Throwable throwable) {
+        return loadShedding.fallback("getAllAccountsByUserAfter", throwable);
+    }
+
+    public CompletableFuture<CollectionVersion> getAccountsVersionByUserFallback(User user, Throwable throwable) {
+        return loadShedding.fallback("getAccountsVersionByUser", throwable);
     }
 
 }
@@ -12,6 +12,7 @@ public record AccountDto(
         AccountType accountType,
         String color,
         String icon,
-        Boolean isArchived
+        Boolean isArchived,
+        Long version
 ) {
 }
@@ -1,8 +1,8 @@
 package br.com.alexmdo.finantialcontrol.domain.auth;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,7 +10,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import br.com.alexmdo.finantialcontrol.domain.auth.dto.LoginRequestDto;
 import br.com.alexmdo.finantialcontrol.domain.auth.dto.TokenJWTDto;
-import br.com.alexmdo.finantialcontrol.domain.user.User;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -19,18 +19,13 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
-    private final TokenService tokenService;
+    private final LoginService loginService;
 
     @PostMapping
-    public ResponseEntity<TokenJWTDto> login(@RequestBody @Valid LoginRequestDto loginRequestDto) {
-        var usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                loginRequestDto.login(),
-                loginRequestDto.password());
-        var authenticate = authenticationManager.authenticate(usernamePasswordAuthenticationToken);
-        var token = tokenService.generateToken((User) authenticate.getPrincipal());
-
-        return ResponseEntity.ok(new TokenJWTDto(token));
+    public CompletableFuture<ResponseEntity<TokenJWTDto>> login(@RequestBody @Valid LoginRequestDto loginRequestDto, HttpServletRequest request) {
+        return loginService
+                .loginAsync(loginRequestDto.login(), loginRequestDto.password(), request.getRemoteAddr())
+                .thenApply(token -> ResponseEntity.ok(new TokenJWTDto(token)));
     }
 
 }
@@ -1,23 +1,45 @@
 package br.com.alexmdo.finantialcontrol.domain.auth;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import br.com.alexmdo.finantialcontrol.domain.user.User;
 import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
+import br.com.alexmdo.finantialcontrol.infra.ReplicaRoutingDataSource;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
-public class AuthService implements UserDetailsService {
+public class AuthService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByEmail(username)
+        // No user is authenticated yet to keep replica reads consistent, so ask the primary
+        return ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByEmail(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
+
+    /**
+     * Called after a successful login when the stored hash uses outdated parameters.
+     * The password itself is unchanged, so the token version is left alone. The upgrade is
+     * guarded by the version read during the login; if the user was changed since, the
+     * newer row wins and the hash is upgraded on a later login instead.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        var existingUser = (User) user;
+        if (userRepository.updatePasswordByIdAndVersion(existingUser.getId(), existingUser.getVersion(), newPassword) == 0) {
+            return existingUser;
+        }
+
+        existingUser.setPassword(newPassword);
+        existingUser.setVersion(existingUser.getVersion() + 1);
+        return existingUser;
+    }
     
 }
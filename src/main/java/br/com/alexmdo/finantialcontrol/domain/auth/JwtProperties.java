@@ -0,0 +1,31 @@
+package br.com.alexmdo.finantialcontrol.domain.auth;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    /**
+     * Secret of the key used to sign new tokens.
+     */
+    private String secret;
+
+    /**
+     * Id written to the kid header of new tokens.
+     */
+    private String keyId = "default";
+
+    /**
+     * Keys that no longer sign tokens but are still accepted until the tokens they signed expire, by key id.
+     */
+    private Map<String, String> retiredKeys = new HashMap<>();
+
+}
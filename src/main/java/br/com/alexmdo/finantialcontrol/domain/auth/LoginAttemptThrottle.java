@@ -0,0 +1,62 @@
+package br.com.alexmdo.finantialcontrol.domain.auth;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Failed login counters per email and per client IP. A counter is dropped once the window
+ * passes without a new failure for its key. Counts are updated with an atomic merge on the
+ * cache entry, so concurrent failures for one key are never lost, not even while the entry
+ * expires. Once a key reaches its limit further attempts are refused before any password
+ * is hashed.
+ */
+@Component
+public class LoginAttemptThrottle {
+
+    private final Cache<String, Integer> failuresByEmail;
+    private final Cache<String, Integer> failuresByIp;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+
+    public LoginAttemptThrottle(
+            @Value("${app.auth.login.max-failures-per-email:5}") int maxFailuresPerEmail,
+            @Value("${app.auth.login.max-failures-per-ip:50}") int maxFailuresPerIp,
+            @Value("${app.auth.login.failure-window:15m}") Duration failureWindow) {
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.failuresByEmail = counters(failureWindow);
+        this.failuresByIp = counters(failureWindow);
+    }
+
+    public boolean isBlocked(String email, String clientIp) {
+        return failures(failuresByEmail, email) >= maxFailuresPerEmail
+                || failures(failuresByIp, clientIp) >= maxFailuresPerIp;
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        failuresByEmail.asMap().merge(email, 1, Integer::sum);
+        failuresByIp.asMap().merge(clientIp, 1, Integer::sum);
+    }
+
+    public void recordSuccess(String email) {
+        failuresByEmail.invalidate(email);
+    }
+
+    private static int failures(Cache<String, Integer> counters, String key) {
+        var count = counters.getIfPresent(key);
+        return count == null ? 0 : count;
+    }
+
+    private static Cache<String, Integer> counters(Duration failureWindow) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(failureWindow)
+                .maximumSize(100_000)
+                .build();
+    }
+
+}
@@ -0,0 +1,78 @@
+package br.com.alexmdo.finantialcontrol.domain.auth;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+import br.com.alexmdo.finantialcontrol.domain.auth.exception.LoginThrottledException;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.infra.MonitoredThreadPools;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Password checks are CPU bound, so they run on their own small pool instead of the
+ * Tomcat threads. When that pool's queue is full, or the email or client IP has too many
+ * recent failures, the login is refused right away without hashing anything.
+ */
+@Service
+@Log4j2
+public class LoginService implements DisposableBean {
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+    private final LoginAttemptThrottle loginAttemptThrottle;
+    private final ExecutorService loginExecutor;
+
+    public LoginService(
+            AuthenticationManager authenticationManager,
+            TokenService tokenService,
+            LoginAttemptThrottle loginAttemptThrottle,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.login.threads:0}") int threads,
+            @Value("${app.auth.login.queue-capacity:50}") int queueCapacity) {
+        this.authenticationManager = authenticationManager;
+        this.tokenService = tokenService;
+        this.loginAttemptThrottle = loginAttemptThrottle;
+        var poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.loginExecutor = MonitoredThreadPools.bounded("login", poolSize, queueCapacity, meterRegistry);
+    }
+
+    public CompletableFuture<String> loginAsync(String login, String password, String clientIp) {
+        if (loginAttemptThrottle.isBlocked(login, clientIp)) {
+            return CompletableFuture.failedFuture(new LoginThrottledException("Too many failed login attempts. Try again later."));
+        }
+
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> authenticate(login, password, clientIp), loginExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Login rejected, authentication queue is full");
+            return CompletableFuture.failedFuture(new LoginThrottledException("Too many login requests. Try again later."));
+        }
+    }
+
+    private String authenticate(String login, String password, String clientIp) {
+        try {
+            var authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(login, password));
+            loginAttemptThrottle.recordSuccess(login);
+            return tokenService.generateToken((User) authentication.getPrincipal());
+        } catch (AuthenticationException e) {
+            loginAttemptThrottle.recordFailure(login, clientIp);
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        loginExecutor.shutdown();
+    }
+
+}
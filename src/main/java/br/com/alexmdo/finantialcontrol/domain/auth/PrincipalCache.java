@@ -0,0 +1,93 @@
+package br.com.alexmdo.finantialcontrol.domain.auth;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Authenticated principals keyed by token subject, so that most requests do not
+ * need to load the user before reaching the controller. Entries never outlive the
+ * token they were loaded for, must match the token's user id and are dropped by
+ * UserService when the user changes. An entry older than the token's version, e.g. one
+ * loaded before a credential change committed, counts as a miss and is reloaded, so
+ * tokens issued after the change are never judged against it.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, CachedPrincipal> cache;
+    private final Duration ttl;
+
+    public PrincipalCache(
+            @Value("${app.security.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.security.principal-cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenBoundExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    public Optional<User> get(String subject, Long userId, int tokenVersion, Instant tokenExpiresAt,
+                              Function<String, Optional<User>> loader) {
+        var cached = cache.getIfPresent(subject);
+        // A user re-registered under the same email gets a new id, so an entry for the old one must not be reused.
+        // Older tokens are still answered from the entry; the caller rejects them by their version.
+        if (cached != null && Objects.equals(cached.user().getId(), userId)
+                && cached.user().getTokenVersion() >= tokenVersion) {
+            return Optional.of(cached.user());
+        }
+
+        var user = loader.apply(subject);
+        user.ifPresent(value -> cache.put(subject, new CachedPrincipal(value, expiresAt(tokenExpiresAt))));
+        return user;
+    }
+
+    public void invalidate(String subject) {
+        cache.invalidate(subject);
+    }
+
+    private Instant expiresAt(Instant tokenExpiresAt) {
+        var maxExpiresAt = Instant.now().plus(ttl);
+        return tokenExpiresAt == null || tokenExpiresAt.isAfter(maxExpiresAt) ? maxExpiresAt : tokenExpiresAt;
+    }
+
+    private record CachedPrincipal(User user, Instant expiresAt) {
+    }
+
+    private static class TokenBoundExpiry implements Expiry<String, CachedPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package br.com.alexmdo.finantialcontrol.domain.auth;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Lowest token version still accepted per user id, recorded when UserService bumps
+ * a user's token version. Stateless principals are never reloaded from the database,
+ * so this is what rejects their tokens after a credential change. Entries only need
+ * to live as long as the tokens they revoke. The list is local to this instance.
+ */
+@Component
+public class TokenRevocations {
+
+    private final Cache<Long, Integer> minimumVersions = Caffeine.newBuilder()
+            .expireAfterWrite(TokenService.TOKEN_LIFETIME)
+            .build();
+
+    public void revokeBefore(Long userId, int tokenVersion) {
+        minimumVersions.asMap().merge(userId, tokenVersion, Math::max);
+    }
+
+    public void revokeAll(Long userId) {
+        revokeBefore(userId, Integer.MAX_VALUE);
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        var minimumVersion = minimumVersions.getIfPresent(userId);
+        return minimumVersion != null && tokenVersion < minimumVersion;
+    }
+
+}
@@ -1,44 +1,130 @@
 package br.com.alexmdo.finantialcontrol.domain.auth;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 
 import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.infra.FlightRecorderEvents;
+import br.com.alexmdo.finantialcontrol.infra.TokenVerificationEvent;
 
+/**
+ * Issues and verifies JWTs against a key ring. Algorithms and verifiers are built
+ * once per key id at startup, so signing and verification only look them up.
+ * The active key signs new tokens; retired keys keep verifying the tokens they
+ * signed until those expire.
+ */
 @Service
 public class TokenService {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    static final Duration TOKEN_LIFETIME = Duration.ofMinutes(120);
+
+    private static final String ISSUER = "Finantial Control";
+    private static final String ID_CLAIM = "id";
+    private static final String AUTHORITIES_CLAIM = "authorities";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private final String activeKeyId;
+    private final Algorithm activeAlgorithm;
+    private final Map<String, JWTVerifier> verifiers;
+
+    public TokenService(JwtProperties jwtProperties) {
+        this.activeKeyId = jwtProperties.getKeyId();
+        this.activeAlgorithm = Algorithm.HMAC256(jwtProperties.getSecret());
+
+        var keyRing = new HashMap<String, JWTVerifier>();
+        jwtProperties.getRetiredKeys().forEach((keyId, secret) -> keyRing.put(keyId, buildVerifier(Algorithm.HMAC256(secret))));
+        keyRing.put(activeKeyId, buildVerifier(activeAlgorithm));
+        this.verifiers = Map.copyOf(keyRing);
+    }
 
     public String generateToken(User principal) {
-        var algorithm = Algorithm.HMAC256(secret);
         return JWT.create()
-                .withIssuer("Finantial Control")
+                .withKeyId(activeKeyId)
+                .withIssuer(ISSUER)
                 .withSubject(principal.getUsername())
-                .withClaim("id", principal.getId())
+                .withClaim(ID_CLAIM, principal.getId())
+                .withClaim(AUTHORITIES_CLAIM, principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+                .withClaim(TOKEN_VERSION_CLAIM, principal.getTokenVersion())
                 .withExpiresAt(expireAt())
-                .sign(algorithm);
+                .sign(activeAlgorithm);
     }
 
     private Instant expireAt() {
-        return LocalDateTime.now().plusMinutes(120).atZone(ZoneId.systemDefault()).toInstant();
+        return Instant.now().plus(TOKEN_LIFETIME);
     }
 
     public String getSubject(String token) {
-        var algorithm = Algorithm.HMAC256(secret);
+        return verify(token).getSubject();
+    }
+
+    public DecodedJWT verify(String token) {
+        var event = new TokenVerificationEvent();
+        event.begin();
+        DecodedJWT decodedJWT = null;
+        var outcome = "invalid";
+        try {
+            decodedJWT = JWT.decode(token);
+            // Tokens issued before key ids were introduced carry no kid and were signed with the active secret
+            var keyId = decodedJWT.getKeyId() == null ? activeKeyId : decodedJWT.getKeyId();
+            var verifier = verifiers.get(keyId);
+            if (verifier == null) {
+                throw new JWTVerificationException("Unknown key id: " + keyId);
+            }
+
+            var verified = verifier.verify(decodedJWT);
+            outcome = "success";
+            return verified;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.userBucket = decodedJWT == null ? -1 : FlightRecorderEvents.userBucket(getUserId(decodedJWT));
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    public Long getUserId(DecodedJWT decodedJWT) {
+        return decodedJWT.getClaim(ID_CLAIM).asLong();
+    }
+
+    public int getTokenVersion(DecodedJWT decodedJWT) {
+        var tokenVersion = decodedJWT.getClaim(TOKEN_VERSION_CLAIM).asInt();
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
+    public List<SimpleGrantedAuthority> getAuthorities(DecodedJWT decodedJWT) {
+        var authorities = decodedJWT.getClaim(AUTHORITIES_CLAIM).asList(String.class);
+        return authorities == null ? List.of() : authorities.stream().map(SimpleGrantedAuthority::new).toList();
+    }
+
+    /**
+     * Builds a principal from the token claims alone. It only carries the id, email and
+     * token version, which is all the services need to scope queries to the user.
+     */
+    public User toPrincipal(DecodedJWT decodedJWT) {
+        var principal = new User(getUserId(decodedJWT), null, null, decodedJWT.getSubject(), null);
+        principal.setTokenVersion(getTokenVersion(decodedJWT));
+        return principal;
+    }
+
+    private static JWTVerifier buildVerifier(Algorithm algorithm) {
         return JWT.require(algorithm)
-                .withIssuer("Finantial Control")
-                .build()
-                .verify(token)
-                .getSubject();
+                .withIssuer(ISSUER)
+                .build();
     }
 
 }
@@ -0,0 +1,11 @@
+package br.com.alexmdo.finantialcontrol.domain.auth.exception;
+
+import br.com.alexmdo.finantialcontrol.infra.BusinessException;
+
+public class LoginThrottledException extends BusinessException {
+
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+
+}
@@ -7,8 +7,12 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,7 +20,8 @@ import lombok.NoArgsConstructor;
 public class Category {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is required")
@@ -32,10 +37,20 @@ public class Category {
     @Column(nullable = false)
     private Type type;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    /**
+     * Incremented on every update; guards concurrent writes and backs the resource ETag.
+     */
+    @Version
+    private long version;
+
+    public Category(Long id, String name, String color, String icon, Type type, User user) {
+        this(id, name, color, icon, type, user, 0);
+    }
+
     public enum Type {
         INCOME,
         EXPENSE
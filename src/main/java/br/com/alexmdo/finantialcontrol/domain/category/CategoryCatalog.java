@@ -0,0 +1,84 @@
+package br.com.alexmdo.finantialcontrol.domain.category;
+
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryDto;
+import br.com.alexmdo.finantialcontrol.infra.CollectionVersion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of one user's categories, ordered by id and indexed by id and name.
+ * A snapshot is never modified: writes drop it from the {@link CategoryCatalogCache} and
+ * the next read builds a new one.
+ */
+public final class CategoryCatalog {
+
+    private final List<CategoryDto> categories;
+    private final long[] ids;
+    private final Map<Long, CategoryDto> byId;
+    private final Map<String, CategoryDto> byName;
+    private final CollectionVersion version;
+
+    private CategoryCatalog(List<CategoryDto> categories) {
+        this.categories = categories;
+        this.ids = categories.stream().mapToLong(CategoryDto::id).toArray();
+
+        var byId = new HashMap<Long, CategoryDto>(categories.size() * 2);
+        var byName = new HashMap<String, CategoryDto>(categories.size() * 2);
+        for (CategoryDto category : categories) {
+            byId.put(category.id(), category);
+            byName.put(category.name(), category);
+        }
+        this.byId = Map.copyOf(byId);
+        this.byName = Map.copyOf(byName);
+        this.version = new CollectionVersion(
+                categories.size(),
+                categories.stream().mapToLong(category -> category.version() == null ? 0 : category.version()).sum(),
+                Arrays.stream(ids).sum());
+    }
+
+    public static CategoryCatalog of(List<CategoryDto> categories) {
+        return new CategoryCatalog(categories.stream()
+                .sorted(Comparator.comparing(CategoryDto::id))
+                .toList());
+    }
+
+    public CollectionVersion version() {
+        return version;
+    }
+
+    public Optional<CategoryDto> findById(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<CategoryDto> findByName(String name) {
+        return Optional.ofNullable(byName.get(name));
+    }
+
+    /**
+     * Up to {@code limit} categories with an id greater than {@code afterId}, in id order.
+     */
+    public List<CategoryDto> after(long afterId, int limit) {
+        var position = Arrays.binarySearch(ids, afterId);
+        var from = position >= 0 ? position + 1 : -position - 1;
+        return categories.subList(from, Math.min(from + limit, categories.size()));
+    }
+
+    public Page<CategoryDto> page(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(categories, pageable, categories.size());
+        }
+
+        var from = (int) Math.min(pageable.getOffset(), categories.size());
+        var to = Math.min(from + pageable.getPageSize(), categories.size());
+        return new PageImpl<>(categories.subList(from, to), pageable, categories.size());
+    }
+
+}
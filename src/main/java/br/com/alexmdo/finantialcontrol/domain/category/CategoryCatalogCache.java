@@ -0,0 +1,83 @@
+package br.com.alexmdo.finantialcontrol.domain.category;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Category catalogs keyed by user id. A catalog is loaded once per user and then served
+ * from memory until a category write invalidates it, the user goes idle, it reaches its
+ * maximum age or the cache runs out of room. The query runs outside the cache's lock, so a
+ * slow load never blocks invalidation; a load that overlaps an invalidation of the same user
+ * is handed to its caller but not kept, so a snapshot read before a commit is never cached
+ * after it. Writes handled by another instance are not seen here, so the maximum age bounds
+ * how stale a catalog can get when several instances run.
+ */
+@Component
+public class CategoryCatalogCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Cache<Long, CategoryCatalog> cache;
+    // Bumped on every invalidation; users sharing a stripe only cost each other a skipped publish
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public CategoryCatalogCache(
+            @Value("${app.category.catalog-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.category.catalog-cache.expire-after-access:30m}") Duration expireAfterAccess,
+            @Value("${app.category.catalog-cache.expire-after-write:1m}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "category-catalogs");
+    }
+
+    public CategoryCatalog getIfPresent(Long userId) {
+        return cache.getIfPresent(userId);
+    }
+
+    public CategoryCatalog get(Long userId, Supplier<List<CategoryDto>> loader) {
+        var cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        var stripe = stripe(userId);
+        var generation = generations.get(stripe);
+        var loaded = CategoryCatalog.of(loader.get());
+        var published = cache.asMap().compute(userId, (key, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            return generations.get(stripe) == generation ? loaded : null;
+        });
+        return published != null ? published : loaded;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            generations.incrementAndGet(stripe(userId));
+            cache.invalidate(userId);
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (GENERATION_STRIPES - 1);
+    }
+
+}
@@ -2,6 +2,7 @@ package br.com.alexmdo.finantialcontrol.domain.category;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,19 +11,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.validation.annotation.Validated;
 
 import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryCreateRequestDto;
 import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryDto;
 import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryUpdateRequestDto;
 import br.com.alexmdo.finantialcontrol.infra.BaseController;
+import br.com.alexmdo.finantialcontrol.infra.CursorPage;
+import br.com.alexmdo.finantialcontrol.infra.ETags;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
+@Validated
 @RequestMapping("/api/users/me/categories")
 @SecurityRequirement(name = "bearer-key")
 public class CategoryController extends BaseController {
@@ -46,48 +54,74 @@ public class CategoryController extends BaseController {
                 });
     }
 
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<List<CategoryDto>>> createCategoriesAsync(@RequestBody List<@Valid CategoryCreateRequestDto> createRequestDtos) {
+        var categories = createRequestDtos.stream()
+                .map(createRequestDto -> categoryMapper.toEntity(createRequestDto, super.getPrincipal()))
+                .toList();
+        return categoryService
+                .createCategoriesAsync(categories)
+                .thenApply(createdCategories -> {
+                    var categoryDtos = createdCategories.stream().map(categoryMapper::toDto).toList();
+                    return ResponseEntity.status(HttpStatus.CREATED).body(categoryDtos);
+                });
+    }
+
     @PutMapping("/{id}")
     public CompletableFuture<ResponseEntity<CategoryDto>> updateCategoryAsync(
             @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody CategoryUpdateRequestDto updateRequestDto) {
         return categoryService
-                .getCategoryByIdAndUserAsync(id, super.getPrincipal())
-                .thenCompose(existingCategory -> {
-                    var updatedCategory = categoryMapper.updateEntity(existingCategory, updateRequestDto);
-                    return categoryService.updateCategoryAsync(updatedCategory);
+                .updateCategoryForUserAsync(id, super.getPrincipal(), existingCategory -> {
+                    ETags.requireMatch(ifMatch, ETags.of(existingCategory.getId(), existingCategory.getVersion()));
+                    return categoryMapper.updateEntity(existingCategory, updateRequestDto);
                 })
                 .thenApply(updatedCategory -> {
                     var responseDto = categoryMapper.toDto(updatedCategory);
-                    return ResponseEntity.ok(responseDto);
+                    return ETags.ok(ETags.of(responseDto.id(), responseDto.version()), responseDto);
                 });
     }
 
     @DeleteMapping("/{id}")
     public CompletableFuture<ResponseEntity<Void>> deleteCategoryAsync(@PathVariable("id") Long id) {
         return categoryService
-                .getCategoryByIdAndUserAsync(id, super.getPrincipal())
-                .thenCompose(existingCategory -> categoryService.deleteCategoryAsync(existingCategory.getId()))
+                .deleteCategoryForUserAsync(id, super.getPrincipal())
                 .thenApply(__ -> ResponseEntity.noContent().build());
     }
 
     @GetMapping
-    public CompletableFuture<ResponseEntity<Page<CategoryDto>>> getCategoriesAsync(Pageable pageable) {
+    public CompletableFuture<ResponseEntity<Page<CategoryDto>>> getCategoriesAsync(
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var user = super.getPrincipal();
         return categoryService
-                .getAllCategoriesByUserAsync(pageable, super.getPrincipal())
-                .thenApply(categories -> {
-                    var categoryDtoPage = categories.map(categoryMapper::toDto);
-                    return ResponseEntity.ok(categoryDtoPage);
-                });
+                .getCategoriesVersionByUserAsync(user)
+                .thenCompose(version -> ETags.conditionalGet(ifNoneMatch, version,
+                        () -> categoryService.getAllCategoriesByUserAsync(pageable, user)));
+    }
+
+    @GetMapping(params = "limit")
+    public CompletableFuture<ResponseEntity<CursorPage<CategoryDto>>> getCategoriesAfterAsync(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam("limit") Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var pageLimit = CursorPage.normalizeLimit(limit);
+        var afterId = CursorPage.decode(after);
+        var user = super.getPrincipal();
+        return categoryService
+                .getCategoriesVersionByUserAsync(user)
+                .thenCompose(version -> ETags.conditionalGet(ifNoneMatch, version,
+                        () -> categoryService
+                                .getAllCategoriesByUserAfterAsync(afterId, pageLimit + 1, user)
+                                .thenApply(categoryDtos -> CursorPage.of(categoryDtos, pageLimit, CategoryDto::id))));
     }
 
     @GetMapping("/{id}")
     public CompletableFuture<ResponseEntity<CategoryDto>> getCategoryByIdAsync(@PathVariable("id") Long id) {
         return categoryService
-                .getCategoryByIdAndUserAsync(id, super.getPrincipal())
-                .thenApply(foundCategory -> {
-                    var categoryDto = categoryMapper.toDto(foundCategory);
-                    return ResponseEntity.ok(categoryDto);
-                });
+                .getCategoryDtoByIdAndUserAsync(id, super.getPrincipal())
+                .thenApply(categoryDto -> ETags.ok(ETags.of(categoryDto.id(), categoryDto.version()), categoryDto));
     }
 
 }
@@ -16,7 +16,8 @@ public class CategoryMapper {
                 category.getName(),
                 category.getColor(),
                 category.getIcon(),
-                category.getType());
+                category.getType(),
+                category.getVersion());
     }
 
     public Category toEntity(CategoryCreateRequestDto createRequestDto, User user) {
@@ -30,13 +31,11 @@ public class CategoryMapper {
     }
 
     public Category updateEntity(Category existingCategory, CategoryUpdateRequestDto updateRequestDto) {
-        return new Category(
-                existingCategory.getId(),
-                updateRequestDto.name(),
-                updateRequestDto.color(),
-                updateRequestDto.icon(),
-                updateRequestDto.type(),
-                existingCategory.getUser());
+        existingCategory.setName(updateRequestDto.name());
+        existingCategory.setColor(updateRequestDto.color());
+        existingCategory.setIcon(updateRequestDto.icon());
+        existingCategory.setType(updateRequestDto.type());
+        return existingCategory;
     }
 
 }
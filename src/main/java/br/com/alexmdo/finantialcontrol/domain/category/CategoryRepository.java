@@ -1,18 +1,35 @@
 package br.com.alexmdo.finantialcontrol.domain.category;
 
+import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryDto;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    String CATEGORY_DTO_SELECT = """
+            select new br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryDto(c.id, c.name, c.color, c.icon, c.type, c.version)
+            from Category c
+            """;
     
-    Optional<Category> findByName(String name);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Category> findByIdAndUser(Long id, User user);    
 
-    Page<Category> findAllByUser(Pageable pageable, User user);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(value = CATEGORY_DTO_SELECT + "where c.user = :user",
+            countQuery = "select count(c) from Category c where c.user = :user")
+    Page<CategoryDto> findAllDtoByUser(Pageable pageable, @Param("user") User user);
 
-    Optional<Category> findByIdAndUser(Long id, User user);    
+    @Query(CATEGORY_DTO_SELECT + "where c.user = :user order by c.id")
+    List<CategoryDto> findAllDtoByUserOrderById(@Param("user") User user);
 }
@@ -1,13 +1,19 @@
 package br.com.alexmdo.finantialcontrol.domain.category;
 
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryDto;
 import br.com.alexmdo.finantialcontrol.domain.category.exception.CategoryAlreadyExistsException;
+import br.com.alexmdo.finantialcontrol.domain.category.exception.CategoryBatchTooLargeException;
 import br.com.alexmdo.finantialcontrol.domain.user.UserService;
-import br.com.alexmdo.finantialcontrol.infra.BusinessException;
+import br.com.alexmdo.finantialcontrol.infra.CollectionVersion;
+import br.com.alexmdo.finantialcontrol.infra.LoadShedding;
+import br.com.alexmdo.finantialcontrol.infra.TransactionalAsyncTemplate;
+import br.com.alexmdo.finantialcontrol.infra.VersionMismatchException;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import br.com.alexmdo.finantialcontrol.domain.category.exception.CategoryNotFoundException;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
@@ -16,139 +22,196 @@ import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
+import java.sql.SQLException;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
 
 @Service
 @RequiredArgsConstructor
 @Log4j2
 public class CategoryService {
 
+    static final int MAX_BATCH_SIZE = 500;
+    // SQL standard state for unique_violation, reported by both PostgreSQL and H2
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final CategoryRepository categoryRepository;
     private final UserService userService;
+    private final TransactionalAsyncTemplate transactionalAsyncTemplate;
+    private final LoadShedding loadShedding;
+    private final CategoryCatalogCache categoryCatalogCache;
 
-    @Transactional
     @CircuitBreaker(name = "createCategory", fallbackMethod = "createCategoryFallback")
     @TimeLimiter(name = "createCategory")
     public CompletableFuture<Category> createCategoryAsync(Category category) {
-        return CompletableFuture
-                .supplyAsync(() -> categoryRepository.save(category));
+        return transactionalAsyncTemplate
+                .supplyAsync(() -> categoryRepository.save(category))
+                .thenApply(this::invalidateCatalog);
     }
 
-    @Transactional
+    /**
+     * Persists all categories in one transaction. Ids come from a pooled sequence, so the
+     * inserts are sent as JDBC batches instead of one round trip per row.
+     */
+    @CircuitBreaker(name = "createCategories", fallbackMethod = "createCategoriesFallback")
+    @TimeLimiter(name = "createCategories")
+    public CompletableFuture<List<Category>> createCategoriesAsync(List<Category> categories) {
+        if (categories.size() > MAX_BATCH_SIZE) {
+            return CompletableFuture.failedFuture(
+                    new CategoryBatchTooLargeException("A batch cannot have more than " + MAX_BATCH_SIZE + " categories."));
+        }
+
+        return transactionalAsyncTemplate
+                .supplyAsync(() -> categoryRepository.saveAll(categories))
+                .thenApply(savedCategories -> {
+                    savedCategories.forEach(this::invalidateCatalog);
+                    return savedCategories;
+                });
+    }
+
+    /**
+     * Loads the category, applies the changes and saves it in one transaction, so the
+     * version the changes were checked against is the one the update is guarded by.
+     */
     @CircuitBreaker(name = "updateCategory", fallbackMethod = "updateCategoryFallback")
     @TimeLimiter(name = "updateCategory")
-    public CompletableFuture<Category> updateCategoryAsync(Category category) {
-        return CompletableFuture.supplyAsync(() -> categoryRepository.save(category));
+    public CompletableFuture<Category> updateCategoryForUserAsync(Long id, User user, UnaryOperator<Category> changes) {
+        return transactionalAsyncTemplate
+                .supplyAsync(() -> categoryRepository.save(changes.apply(findCategoryByIdAndUser(id, user))))
+                .thenApply(this::invalidateCatalog);
     }
 
-    @Transactional
     @CircuitBreaker(name = "deleteCategoryByUser", fallbackMethod = "deleteCategoryFallback")
     @TimeLimiter(name = "deleteCategoryByUser")
-    public CompletableFuture<Void> deleteCategoryAsync(Long id) {
-        return CompletableFuture
-                .supplyAsync(() -> categoryRepository
-                        .findById(id)
-                        .orElseThrow(() -> new CategoryNotFoundException("Category not found given the id")))
-                .thenCompose(category -> {
-                    categoryRepository.delete(category);
-                    return CompletableFuture.completedFuture(null);
-                });
+    public CompletableFuture<Void> deleteCategoryForUserAsync(Long id, User user) {
+        return transactionalAsyncTemplate.supplyAsync(() -> {
+            var category = findCategoryByIdAndUser(id, user);
+            categoryRepository.delete(category);
+            return category;
+        }).thenAccept(this::invalidateCatalog);
     }
 
-    @CircuitBreaker(name = "getCategoryByIdAndUser", fallbackMethod = "getCategoryByIdAndUserFallback")
-    @TimeLimiter(name = "getCategoryByIdAndUser")
-    public CompletableFuture<Category> getCategoryByIdAndUserAsync(Long id, User user) {
-        return CompletableFuture.supplyAsync(() -> categoryRepository
-                .findByIdAndUser(id, user)
+    @CircuitBreaker(name = "getCategoryDtoByIdAndUser", fallbackMethod = "getCategoryDtoByIdAndUserFallback")
+    @TimeLimiter(name = "getCategoryDtoByIdAndUser")
+    public CompletableFuture<CategoryDto> getCategoryDtoByIdAndUserAsync(Long id, User user) {
+        return catalogAsync(user).thenApply(catalog -> catalog
+                .findById(id)
                 .orElseThrow(() -> new CategoryNotFoundException("Category not found given the id")));
     }
 
     @CircuitBreaker(name = "getCategoryByName", fallbackMethod = "getCategoryByNameFallback")
     @TimeLimiter(name = "getCategoryByName")
-    public CompletableFuture<Category> getCategoryByNameAsync(String name) {
-        return CompletableFuture.supplyAsync(() -> categoryRepository
+    public CompletableFuture<CategoryDto> getCategoryByNameAsync(String name, User user) {
+        return catalogAsync(user).thenApply(catalog -> catalog
                 .findByName(name)
                 .orElseThrow(() -> new CategoryNotFoundException("Category not found given the name")));
     }
 
     @CircuitBreaker(name = "getAllCategoriesByUser", fallbackMethod = "getAllCategoriesByUserFallback")
     @TimeLimiter(name = "getAllCategoriesByUser")
-    public CompletableFuture<Page<Category>> getAllCategoriesByUserAsync(Pageable pageable, User user) {
-        return CompletableFuture.supplyAsync(() -> categoryRepository.findAllByUser(pageable, user));
+    public CompletableFuture<Page<CategoryDto>> getAllCategoriesByUserAsync(Pageable pageable, User user) {
+        // The catalog is kept in id order; any other ordering is left to the database
+        if (pageable.getSort().isSorted()) {
+            return transactionalAsyncTemplate.supplyReadOnlyAsync(() -> categoryRepository.findAllDtoByUser(pageable, user));
+        }
+
+        return catalogAsync(user).thenApply(catalog -> catalog.page(pageable));
     }
 
-    public CompletableFuture<Category> createCategoryFallback(Category category, Throwable throwable) {
-        // Fallback logic for createCategoryAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else if (throwable instanceof DataIntegrityViolationException) {
-            throw new CategoryAlreadyExistsException("Category with name '" + category.getName() + "' already exists.");
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for createCategoryAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+    @CircuitBreaker(name = "getAllCategoriesByUserAfter", fallbackMethod = "getAllCategoriesByUserAfterFallback")
+    @TimeLimiter(name = "getAllCategoriesByUserAfter")
+    public CompletableFuture<List<CategoryDto>> getAllCategoriesByUserAfterAsync(Long afterId, int limit, User user) {
+        return catalogAsync(user).thenApply(catalog -> catalog.after(afterId, limit));
     }
 
-    public CompletableFuture<Category> updateCategoryFallback(Category category, Throwable throwable) {
-        // Fallback logic for updateCategoryAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for updateCategoryAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
+    /**
+     * Count, version sum and id sum of the user's categories, used as the listing ETag.
+     */
+    @CircuitBreaker(name = "getCategoriesVersionByUser", fallbackMethod = "getCategoriesVersionByUserFallback")
+    @TimeLimiter(name = "getCategoriesVersionByUser")
+    public CompletableFuture<CollectionVersion> getCategoriesVersionByUserAsync(User user) {
+        return catalogAsync(user).thenApply(CategoryCatalog::version);
+    }
+
+    /**
+     * The user's category catalog: a map lookup when it is cached, otherwise one query on
+     * the database executor that loads all of the user's categories.
+     */
+    private CompletableFuture<CategoryCatalog> catalogAsync(User user) {
+        var catalog = categoryCatalogCache.getIfPresent(user.getId());
+        if (catalog != null) {
+            return CompletableFuture.completedFuture(catalog);
         }
+
+        return transactionalAsyncTemplate.supplyReadOnlyAsync(() -> categoryCatalogCache
+                .get(user.getId(), () -> categoryRepository.findAllDtoByUserOrderById(user)));
     }
 
-    public CompletableFuture<Void> deleteCategoryFallback(Long id, Throwable throwable) {
-        // Fallback logic for deleteCategoryByUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for deleteCategoryByUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
+    private Category findCategoryByIdAndUser(Long id, User user) {
+        return categoryRepository
+                .findByIdAndUser(id, user)
+                .orElseThrow(() -> new CategoryNotFoundException("Category not found given the id"));
+    }
+
+    // Called once the write has committed, so the next read rebuilds the catalog from the new state
+    private Category invalidateCatalog(Category category) {
+        if (category != null && category.getUser() != null) {
+            categoryCatalogCache.invalidate(category.getUser().getId());
         }
+        return category;
+    }
+
+    // Only a duplicate name means "already exists"; not-null or foreign key failures are not the client's duplicate
+    private static boolean isUniqueViolation(Throwable throwable) {
+        return throwable instanceof DataIntegrityViolationException
+                && NestedExceptionUtils.getMostSpecificCause(throwable) instanceof SQLException sqlException
+                && UNIQUE_VIOLATION.equals(sqlException.getSQLState());
     }
 
-    public CompletableFuture<Category> getCategoryByIdAndUserFallback(Long id, User user, Throwable throwable) {
-        // Fallback logic for getCategoryByIdAndUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for getCategoryByIdAndUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
+    public CompletableFuture<Category> createCategoryFallback(Category category, Throwable throwable) {
+        if (isUniqueViolation(throwable)) {
+            throw new CategoryAlreadyExistsException("Category with name '" + category.getName() + "' already exists.");
         }
+        return loadShedding.fallback("createCategory", throwable);
     }
 
-    public CompletableFuture<Category> getCategoryByNameFallback(String name, Throwable throwable) {
-        // Fallback logic for getCategoryByNameAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for getCategoryByNameAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
+    public CompletableFuture<List<Category>> createCategoriesFallback(List<Category> categories, Throwable throwable) {
+        if (isUniqueViolation(throwable)) {
+            throw new CategoryAlreadyExistsException("One or more categories in the batch already exist.");
         }
+        return loadShedding.fallback("createCategories", throwable);
     }
 
-    public CompletableFuture<Page<Category>> getAllCategoriesByUserFallback(Pageable pageable, User user, Throwable throwable) {
-        // Fallback logic for getAllCategoriesByUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for getAllCategoriesByUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
+    public CompletableFuture<Category> updateCategoryFallback(Long id, User user, UnaryOperator<Category> changes, Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            throw new VersionMismatchException("The category was modified by another request. Fetch it again and retry.");
         }
+        return loadShedding.fallback("updateCategory", throwable);
+    }
+
+    public CompletableFuture<Void> deleteCategoryFallback(Long id, User user, Throwable throwable) {
+        return loadShedding.fallback("deleteCategoryByUser", throwable);
+    }
+
+    public CompletableFuture<CategoryDto> getCategoryDtoByIdAndUserFallback(Long id, User user, Throwable throwable) {
+        return loadShedding.fallback("getCategoryDtoByIdAndUser", throwable);
+    }
+
+    public CompletableFuture<CategoryDto> getCategoryByNameFallback(String name, User user, Throwable throwable) {
+        return loadShedding.fallback("getCategoryByName", throwable);
+    }
+
+    public CompletableFuture<Page<CategoryDto>> getAllCategoriesByUserFallback(Pageable pageable, User user, Throwable throwable) {
+        return loadShedding.fallback("getAllCategoriesByUser", throwable);
+    }
+
+    public CompletableFuture<List<CategoryDto>> getAllCategoriesByUserAfterFallback(Long afterId, int limit, User user, Throwable throwable) {
+        return loadShedding.fallback("getAllCategoriesByUserAfter", throwable);
+    }
+
+    public CompletableFuture<CollectionVersion> getCategoriesVersionByUserFallback(User user, Throwable throwable) {
+        return loadShedding.fallback("getCategoriesVersionByUser", throwable);
     }
 
 }
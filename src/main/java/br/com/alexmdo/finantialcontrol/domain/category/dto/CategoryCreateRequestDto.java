@@ -1,7 +1,12 @@
 package br.com.alexmdo.finantialcontrol.domain.category.dto;
 
 import br.com.alexmdo.finantialcontrol.domain.category.Category;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 
-public record CategoryCreateRequestDto(String name, String color, String icon, Category.Type type) {
-    // Constructors if needed
-}
\ No newline at end of file
+public record CategoryCreateRequestDto(
+        @NotBlank(message = "Name is required") String name,
+        String color,
+        String icon,
+        @NotNull(message = "Type is required") Category.Type type) {
+}
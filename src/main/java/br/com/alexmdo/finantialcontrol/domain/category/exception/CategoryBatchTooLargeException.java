@@ -0,0 +1,11 @@
+package br.com.alexmdo.finantialcontrol.domain.category.exception;
+
+import br.com.alexmdo.finantialcontrol.infra.BusinessException;
+
+public class CategoryBatchTooLargeException extends BusinessException {
+
+    public CategoryBatchTooLargeException(String message) {
+        super(message);
+    }
+
+}
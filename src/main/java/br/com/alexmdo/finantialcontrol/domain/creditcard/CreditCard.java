@@ -6,6 +6,8 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
@@ -13,11 +15,14 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "credit-cards")
 @Table(name = "credit_cards")
 public class CreditCard {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credit_cards_seq")
+    @SequenceGenerator(name = "credit_cards_seq", sequenceName = "credit_cards_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Limit must not be null")
@@ -47,4 +52,15 @@ public class CreditCard {
     @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
 
+    /**
+     * Incremented on every update; guards concurrent writes and backs the resource ETag.
+     */
+    @Version
+    private long version;
+
+    public CreditCard(Long id, BigDecimal creditCardLimit, String description, CreditCardBrand brand,
+                      Integer closingDay, Integer dueDate, boolean archived, Account account) {
+        this(id, creditCardLimit, description, brand, closingDay, dueDate, archived, account, 0);
+    }
+
 }
@@ -4,11 +4,14 @@ import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardCreateReq
 import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardDto;
 import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardUpdateRequestDto;
 import br.com.alexmdo.finantialcontrol.infra.BaseController;
+import br.com.alexmdo.finantialcontrol.infra.CursorPage;
+import br.com.alexmdo.finantialcontrol.infra.ETags;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -39,10 +42,7 @@ public class CreditCardController extends BaseController {
     public CompletableFuture<ResponseEntity<CreditCardDto>> archiveCreditCardAsync(@PathVariable Long id) {
         return creditCardService
                 .archiveCreditCardForUserAsync(id, super.getPrincipal())
-                .thenApply(archivedCreditCard -> {
-                    var creditCardDto = creditCardMapper.toDto(archivedCreditCard);
-                    return ResponseEntity.ok(creditCardDto);
-                });
+                .thenApply(creditCardDto -> ETags.ok(ETags.of(creditCardDto.id(), creditCardDto.version()), creditCardDto));
     }
 
     @DeleteMapping("/{id}")
@@ -54,38 +54,52 @@ public class CreditCardController extends BaseController {
 
     @PutMapping("/{id}")
     public CompletableFuture<ResponseEntity<CreditCardDto>> updateCreditCardAsync(@PathVariable Long id,
+                                                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                                                   @Valid @RequestBody CreditCardUpdateRequestDto updateRequestDto) {
         return creditCardService
-                .getCreditCardByIdAndUserAsync(id, super.getPrincipal())
-                .thenCompose(existingCreditCard -> {
-                    var updatedCreditCard = creditCardMapper.updateEntity(existingCreditCard, updateRequestDto);
-                    return creditCardService.updateCreditCardAsync(updatedCreditCard);
+                .updateCreditCardForUserAsync(id, super.getPrincipal(), existingCreditCard -> {
+                    ETags.requireMatch(ifMatch, ETags.of(existingCreditCard.getId(), existingCreditCard.getVersion()));
+                    return creditCardMapper.updateEntity(existingCreditCard, updateRequestDto);
                 })
                 .thenApply(updatedCreditCard -> {
                     var creditCardDto = creditCardMapper.toDto(updatedCreditCard);
-                    return ResponseEntity.ok(creditCardDto);
+                    return ETags.ok(ETags.of(creditCardDto.id(), creditCardDto.version()), creditCardDto);
                 });
 
     }
 
     @GetMapping
-    public CompletableFuture<ResponseEntity<Page<CreditCardDto>>> getCreditCardsAsync(Pageable pageable) {
+    public CompletableFuture<ResponseEntity<Page<CreditCardDto>>> getCreditCardsAsync(
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var user = super.getPrincipal();
         return creditCardService
-                .getAllCreditCardsByUserAsync(pageable, super.getPrincipal())
-                .thenApply(creditCards -> {
-                    var creditCardDtos = creditCards.map(creditCardMapper::toDto);
-                    return ResponseEntity.ok(creditCardDtos);
-                });
+                .getCreditCardsVersionByUserAsync(user)
+                .thenCompose(version -> ETags.conditionalGet(ifNoneMatch, version,
+                        () -> creditCardService.getAllCreditCardsByUserAsync(pageable, user)));
+    }
+
+    @GetMapping(params = "limit")
+    public CompletableFuture<ResponseEntity<CursorPage<CreditCardDto>>> getCreditCardsAfterAsync(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam("limit") Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var pageLimit = CursorPage.normalizeLimit(limit);
+        var afterId = CursorPage.decode(after);
+        var user = super.getPrincipal();
+        return creditCardService
+                .getCreditCardsVersionByUserAsync(user)
+                .thenCompose(version -> ETags.conditionalGet(ifNoneMatch, version,
+                        () -> creditCardService
+                                .getAllCreditCardsByUserAfterAsync(afterId, pageLimit + 1, user)
+                                .thenApply(creditCardDtos -> CursorPage.of(creditCardDtos, pageLimit, CreditCardDto::id))));
     }
 
     @GetMapping("/{id}")
     public CompletableFuture<ResponseEntity<CreditCardDto>> getCreditCardByIdAsync(@PathVariable Long id) {
         return creditCardService
-                .getCreditCardByIdAndUserAsync(id, super.getPrincipal())
-                .thenApply(creditCard -> {
-                    var creditCardDto = creditCardMapper.toDto(creditCard);
-                    return ResponseEntity.ok(creditCardDto);
-                });
+                .getCreditCardDtoByIdAndUserAsync(id, super.getPrincipal())
+                .thenApply(creditCardDto -> ETags.ok(ETags.of(creditCardDto.id(), creditCardDto.version()), creditCardDto));
     }
 
 }
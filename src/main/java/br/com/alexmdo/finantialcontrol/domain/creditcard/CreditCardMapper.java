@@ -18,7 +18,8 @@ public class CreditCardMapper {
                 creditCard.getClosingDay(),
                 creditCard.getDueDate(),
                 creditCard.getAccount().getId(),
-                creditCard.isArchived()
+                creditCard.isArchived(),
+                creditCard.getVersion()
         );
     }
 
@@ -1,15 +1,73 @@
 package br.com.alexmdo.finantialcontrol.domain.creditcard;
 
+import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardDto;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.infra.CollectionVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CreditCardRepository extends JpaRepository<CreditCard, Long> {
 
+    String CREDIT_CARD_DTO_SELECT = """
+            select new br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardDto(
+                c.id, c.creditCardLimit, c.description, c.brand, c.closingDay, c.dueDate, c.account.id, c.archived, c.version)
+            from CreditCard c
+            """;
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<CreditCard> findByIdAndAccountUser(Long id, User user);
 
-    Page<CreditCard> findAllByAccountUser(Pageable pageable, User user);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(CREDIT_CARD_DTO_SELECT + "where c.id = :id and c.account.user = :user")
+    Optional<CreditCardDto> findDtoByIdAndAccountUser(@Param("id") Long id, @Param("user") User user);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(value = CREDIT_CARD_DTO_SELECT + "where c.account.user = :user",
+            countQuery = "select count(c) from CreditCard c where c.account.user = :user")
+    Page<CreditCardDto> findAllDtoByAccountUser(Pageable pageable, @Param("user") User user);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(CREDIT_CARD_DTO_SELECT + "where c.account.user = :user and c.id > :id order by c.id")
+    List<CreditCardDto> findAllDtoByAccountUserAndIdGreaterThan(@Param("user") User user, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+            select new br.com.alexmdo.finantialcontrol.infra.CollectionVersion(count(c), coalesce(sum(c.version), 0L), coalesce(sum(c.id), 0L))
+            from CreditCard c
+            where c.account.user = :user
+            """)
+    CollectionVersion findCollectionVersionByAccountUser(@Param("user") User user);
+
+    boolean existsByIdAndAccountUser(Long id, User user);
+
+    /**
+     * Archives the credit card in a single statement and returns the number of rows touched,
+     * zero when none of the user's accounts has a credit card with that id.
+     */
+    @Modifying
+    @Query("""
+            update CreditCard c set c.archived = true, c.version = c.version + 1
+            where c.id = :id and c.account in (select a from Account a where a.user = :user)
+            """)
+    int archiveByIdAndAccountUser(@Param("id") Long id, @Param("user") User user);
+
+    /**
+     * Deletes the credit card only if it is already archived, returning the number of rows removed.
+     */
+    @Modifying
+    @Query("""
+            delete from CreditCard c
+            where c.id = :id and c.archived = true and c.account in (select a from Account a where a.user = :user)
+            """)
+    int deleteArchivedByIdAndAccountUser(@Param("id") Long id, @Param("user") User user);
 }
@@ -1,22 +1,27 @@
 package br.com.alexmdo.finantialcontrol.domain.creditcard;
 
-import br.com.alexmdo.finantialcontrol.domain.account.Account;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardDto;
 import br.com.alexmdo.finantialcontrol.domain.account.AccountService;
 import br.com.alexmdo.finantialcontrol.domain.creditcard.exception.CreditCardNotArchivedException;
 import br.com.alexmdo.finantialcontrol.domain.creditcard.exception.CreditCardNotFoundException;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
-import br.com.alexmdo.finantialcontrol.infra.BusinessException;
+import br.com.alexmdo.finantialcontrol.infra.CollectionVersion;
+import br.com.alexmdo.finantialcontrol.infra.LoadShedding;
+import br.com.alexmdo.finantialcontrol.infra.TransactionalAsyncTemplate;
+import br.com.alexmdo.finantialcontrol.infra.VersionMismatchException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
-import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
 
 @Service
 @RequiredArgsConstructor
@@ -25,135 +30,132 @@ public class CreditCardService {
 
     private final CreditCardRepository creditCardRepository;
     private final AccountService accountService;
+    private final TransactionalAsyncTemplate transactionalAsyncTemplate;
+    private final LoadShedding loadShedding;
 
-    @Transactional
     @CircuitBreaker(name = "createCreditCardForUser", fallbackMethod = "createCreditCardForUserFallback")
     @TimeLimiter(name = "createCreditCardForUser")
     public CompletableFuture<CreditCard> createCreditCardForUserAsync(CreditCard creditCard, User user) {
-        return accountService.getAccountByIdAndUserAsync(creditCard.getAccount().getId(), user)
-                .thenApply(account -> {
-                    creditCard.setAccount(account);
-                    return creditCardRepository.save(creditCard);
-                });
+        return transactionalAsyncTemplate.supplyAsync(() -> {
+            creditCard.setAccount(accountService.findAccountByIdAndUser(creditCard.getAccount().getId(), user));
+            return creditCardRepository.save(creditCard);
+        });
     }
 
-    @Transactional
+    /**
+     * Archives the credit card with one conditional update and reads back the projection
+     * the endpoint answers with.
+     */
     @CircuitBreaker(name = "archiveCreditCardForUser", fallbackMethod = "archiveCreditCardForUserFallback")
     @TimeLimiter(name = "archiveCreditCardForUser")
-    public CompletableFuture<CreditCard> archiveCreditCardForUserAsync(Long id, User user) {
-        return getCreditCardByIdAndUserAsync(id, user)
-                .thenCompose(existingCreditCard -> {
-                    existingCreditCard.setArchived(true);
-                    return CompletableFuture.supplyAsync(() -> creditCardRepository.save(existingCreditCard));
-                });
+    public CompletableFuture<CreditCardDto> archiveCreditCardForUserAsync(Long id, User user) {
+        return transactionalAsyncTemplate.supplyAsync(() -> {
+            if (creditCardRepository.archiveByIdAndAccountUser(id, user) == 0) {
+                throw new CreditCardNotFoundException("Credit card not found with id '" + id + "' and user '" + user.getUsername() + "'");
+            }
+
+            return creditCardRepository.findDtoByIdAndAccountUser(id, user)
+                    .orElseThrow(() -> new CreditCardNotFoundException("Credit card not found with id '" + id + "' and user '" + user.getUsername() + "'"));
+        });
     }
 
-    @Transactional
     @CircuitBreaker(name = "deleteCreditCardForUser", fallbackMethod = "deleteCreditCardForUserFallback")
     @TimeLimiter(name = "deleteCreditCardForUser")
     public CompletableFuture<Void> deleteCreditCardForUserAsync(Long id, User user) {
-        return getCreditCardByIdAndUserAsync(id, user)
-                .thenCompose(existingCreditCard -> {
-                    if (existingCreditCard.isArchived()) {
-                        return CompletableFuture.runAsync(() -> creditCardRepository.delete(existingCreditCard));
-                    } else {
-                        throw new CreditCardNotArchivedException("Cannot delete credit card. Archive it first.");
-                    }
-                });
+        return transactionalAsyncTemplate.runAsync(() -> {
+            if (creditCardRepository.deleteArchivedByIdAndAccountUser(id, user) > 0) {
+                return;
+            }
+
+            // Nothing was deleted; only now is it worth a second statement to tell the caller why
+            if (!creditCardRepository.existsByIdAndAccountUser(id, user)) {
+                throw new CreditCardNotFoundException("Credit card not found with id '" + id + "' and user '" + user.getUsername() + "'");
+            }
+            throw new CreditCardNotArchivedException("Cannot delete credit card. Archive it first.");
+        });
     }
 
-    @CircuitBreaker(name = "getCreditCardByIdAndUser", fallbackMethod = "getCreditCardByIdAndUserFallback")
-    @TimeLimiter(name = "getCreditCardByIdAndUser")
-    public CompletableFuture<CreditCard> getCreditCardByIdAndUserAsync(Long id, User user) {
-        return CompletableFuture
-                .supplyAsync(() -> creditCardRepository.findByIdAndAccountUser(id, user)
-                        .orElseThrow(() -> new CreditCardNotFoundException("Credit card not found with id '" + id + "' and user '" + user.getUsername() + "'")));
+    @CircuitBreaker(name = "getCreditCardDtoByIdAndUser", fallbackMethod = "getCreditCardDtoByIdAndUserFallback")
+    @TimeLimiter(name = "getCreditCardDtoByIdAndUser")
+    public CompletableFuture<CreditCardDto> getCreditCardDtoByIdAndUserAsync(Long id, User user) {
+        return transactionalAsyncTemplate.supplyReadOnlyAsync(() -> creditCardRepository
+                .findDtoByIdAndAccountUser(id, user)
+                .orElseThrow(() -> new CreditCardNotFoundException("Credit card not found with id '" + id + "' and user '" + user.getUsername() + "'")));
     }
 
-    @Transactional
+    /**
+     * Loads the credit card, applies the changes and saves it in one transaction, so the
+     * version the changes were checked against is the one the update is guarded by.
+     */
     @CircuitBreaker(name = "updateCreditCard", fallbackMethod = "updateCreditCardFallback")
     @TimeLimiter(name = "updateCreditCard")
-    public CompletableFuture<CreditCard> updateCreditCardAsync(CreditCard updatedCreditCard) {
-        return CompletableFuture
-                .supplyAsync(() -> creditCardRepository.save(updatedCreditCard));
+    public CompletableFuture<CreditCard> updateCreditCardForUserAsync(Long id, User user, UnaryOperator<CreditCard> changes) {
+        return transactionalAsyncTemplate
+                .supplyAsync(() -> creditCardRepository.save(changes.apply(findCreditCardByIdAndUser(id, user))));
     }
 
     @CircuitBreaker(name = "getAllCreditCardsByUser", fallbackMethod = "getAllCreditCardsByUserFallback")
     @TimeLimiter(name = "getAllCreditCardsByUser")
-    public CompletableFuture<Page<CreditCard>> getAllCreditCardsByUserAsync(Pageable pageable, User user) {
-        return CompletableFuture
-                .supplyAsync(() -> creditCardRepository.findAllByAccountUser(pageable, user));
-    }
-
-    public CompletableFuture<Account> createCreditCardForUserFallback(CreditCard creditCard, User user, Throwable throwable) {
-        // Fallback logic for createAccountAsync
-        if (throwable instanceof BusinessException || throwable instanceof ConstraintViolationException) {
-            throw (RuntimeException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for createCreditCardAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+    public CompletableFuture<Page<CreditCardDto>> getAllCreditCardsByUserAsync(Pageable pageable, User user) {
+        return transactionalAsyncTemplate
+                .supplyReadOnlyAsync(() -> creditCardRepository.findAllDtoByAccountUser(pageable, user));
     }
 
-    public CompletableFuture<CreditCard> archiveCreditCardForUserFallback(CreditCard creditCard, User user, Throwable throwable) {
-        // Fallback logic for createAccountAsync
-        if (throwable instanceof BusinessException) {
-            throw (RuntimeException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for archiveCreditCardForUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+    @CircuitBreaker(name = "getAllCreditCardsByUserAfter", fallbackMethod = "getAllCreditCardsByUserAfterFallback")
+    @TimeLimiter(name = "getAllCreditCardsByUserAfter")
+    public CompletableFuture<List<CreditCardDto>> getAllCreditCardsByUserAfterAsync(Long afterId, int limit, User user) {
+        return transactionalAsyncTemplate
+                .supplyReadOnlyAsync(() -> creditCardRepository.findAllDtoByAccountUserAndIdGreaterThan(user, afterId, PageRequest.ofSize(limit)));
     }
 
-    public CompletableFuture<CreditCard> getCreditCardByIdAndUserFallback(Long id, User user, Throwable throwable) {
-        // Fallback logic for createAccountAsync
-        if (throwable instanceof BusinessException) {
-            throw (RuntimeException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for getCreditCardByIdAndUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+    private CreditCard findCreditCardByIdAndUser(Long id, User user) {
+        return creditCardRepository.findByIdAndAccountUser(id, user)
+                .orElseThrow(() -> new CreditCardNotFoundException("Credit card not found with id '" + id + "' and user '" + user.getUsername() + "'"));
+    }
+
+    /**
+     * Count, version sum and id sum of the user's credit cards, used as the listing ETag.
+     */
+    @CircuitBreaker(name = "getCreditCardsVersionByUser", fallbackMethod = "getCreditCardsVersionByUserFallback")
+    @TimeLimiter(name = "getCreditCardsVersionByUser")
+    public CompletableFuture<CollectionVersion> getCreditCardsVersionByUserAsync(User user) {
+        return transactionalAsyncTemplate
+                .supplyReadOnlyAsync(() -> creditCardRepository.findCollectionVersionByAccountUser(user));
+    }
+
+    public CompletableFuture<CreditCard> createCreditCardForUserFallback(CreditCard creditCard, User user, Throwable throwable) {
+        return loadShedding.fallback("createCreditCardForUser", throwable);
+    }
+
+    public CompletableFuture<CreditCardDto> archiveCreditCardForUserFallback(Long id, User user, Throwable throwable) {
+        return loadShedding.fallback("archiveCreditCardForUser", throwable);
+    }
+
+    public CompletableFuture<CreditCardDto> getCreditCardDtoByIdAndUserFallback(Long id, User user, Throwable throwable) {
+        return loadShedding.fallback("getCreditCardDtoByIdAndUser", throwable);
     }
 
     public CompletableFuture<Void> deleteCreditCardForUserFallback(Long id, User user, Throwable throwable) {
-        // Fallback logic for createAccountAsync
-        if (throwable instanceof BusinessException) {
-            throw (RuntimeException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for deleteCreditCardForUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+        return loadShedding.fallback("deleteCreditCardForUser", throwable);
     }
 
-    public CompletableFuture<CreditCard> updateCreditCardFallback(CreditCard updatedCreditCard, Throwable throwable) {
-        // Fallback logic for createAccountAsync
-        if (throwable instanceof BusinessException || throwable instanceof ConstraintViolationException) {
-            throw (RuntimeException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for updateCreditCardAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
+    public CompletableFuture<CreditCard> updateCreditCardFallback(Long id, User user, UnaryOperator<CreditCard> changes, Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            throw new VersionMismatchException("The credit card was modified by another request. Fetch it again and retry.");
         }
+        return loadShedding.fallback("updateCreditCard", throwable);
     }
 
-    public CompletableFuture<Page<CreditCard>> getAllCreditCardsByUserFallback(Pageable pageable, User user, Throwable throwable) {
-        // Fallback logic for createAccountAsync
-        if (throwable instanceof BusinessException) {
-            throw (RuntimeException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for getAllCreditCardsByUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+    public CompletableFuture<Page<CreditCardDto>> getAllCreditCardsByUserFallback(Pageable pageable, User user, Throwable throwable) {
+        return loadShedding.fallback("getAllCreditCardsByUser", throwable);
     }
+
+    public CompletableFuture<List<CreditCardDto>> getAllCreditCardsByUserAfterFallback(Long afterId, int limit, User user, Throwable throwable) {
+        return loadShedding.fallback("getAllCreditCardsByUserAfter", throwable);
+    }
+
+    public CompletableFuture<CollectionVersion> getCreditCardsVersionByUserFallback(User user, Throwable throwable) {
+        return loadShedding.fallback("getCreditCardsVersionByUser", throwable);
+    }
+
 }
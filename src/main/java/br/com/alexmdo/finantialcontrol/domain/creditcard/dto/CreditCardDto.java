@@ -12,6 +12,7 @@ public record CreditCardDto(
         Integer closingDay,
         Integer dueDate,
         Long accountId,
-        boolean archived
+        boolean archived,
+        Long version
 ) {
 }
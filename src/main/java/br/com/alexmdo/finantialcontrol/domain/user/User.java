@@ -12,7 +12,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -27,7 +29,8 @@ import lombok.NoArgsConstructor;
 public class User implements UserDetails {
    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "First name is required")
@@ -47,6 +50,26 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String password;
 
+    /**
+     * Bumped whenever the credentials change, so that tokens issued with an older version are rejected.
+     */
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+
+    /**
+     * Incremented on every update; guards concurrent writes and backs the resource ETag.
+     */
+    @Version
+    private long version;
+
+    public User(Long id, String firstName, String lastName, String email, String password) {
+        this(id, firstName, lastName, email, password, 0, 0);
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_USER"));
@@ -4,9 +4,11 @@ import br.com.alexmdo.finantialcontrol.domain.user.dto.UserCreateRequestDto;
 import br.com.alexmdo.finantialcontrol.domain.user.dto.UserDto;
 import br.com.alexmdo.finantialcontrol.domain.user.dto.UserUpdateRequestDto;
 import br.com.alexmdo.finantialcontrol.infra.BaseController;
+import br.com.alexmdo.finantialcontrol.infra.ETags;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -36,16 +38,16 @@ public class UserController extends BaseController {
     @PutMapping("/{id}")
     public CompletableFuture<ResponseEntity<UserDto>> updateUser(
             @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UserUpdateRequestDto updateRequestDto) {
         return userService
-                .getUserByIdAndUserAsync(id, super.getPrincipal())
-                .thenCompose(existingUser -> {
-                    var updatedUser = userMapper.updateEntity(existingUser, updateRequestDto);
-                    return userService.updateUserAsync(updatedUser);
+                .updateUserAsync(id, super.getPrincipal(), existingUser -> {
+                    ETags.requireMatch(ifMatch, ETags.of(existingUser.getId(), existingUser.getVersion()));
+                    return userMapper.updateEntity(existingUser, updateRequestDto);
                 })
                 .thenApply(updatedUser -> {
                     var responseDto = userMapper.toDto(updatedUser);
-                    return ResponseEntity.ok(responseDto);
+                    return ETags.ok(ETags.of(responseDto.id(), responseDto.version()), responseDto);
                 });
     }
 
@@ -62,7 +64,7 @@ public class UserController extends BaseController {
                 .getUserByIdAndUserAsync(id, super.getPrincipal())
                 .thenApply(existingUser -> {
                     var responseDto = userMapper.toDto(existingUser);
-                    return ResponseEntity.ok(responseDto);
+                    return ETags.ok(ETags.of(responseDto.id(), responseDto.version()), responseDto);
                 });
     }
 
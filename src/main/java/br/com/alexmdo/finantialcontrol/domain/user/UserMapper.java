@@ -34,7 +34,7 @@ public class UserMapper {
     }
 
     public UserDto toDto(User user) {
-        return new UserDto(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail());
+        return new UserDto(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getVersion());
     }
     
 }
@@ -3,11 +3,22 @@ package br.com.alexmdo.finantialcontrol.domain.user;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
-    boolean existsByEmail(String email);
+    /**
+     * Replaces the password hash only if the user is still at the expected version, returning
+     * the number of rows touched, zero when it was changed in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password, u.version = u.version + 1 where u.id = :id and u.version = :version")
+    int updatePasswordByIdAndVersion(@Param("id") Long id, @Param("version") long version, @Param("password") String password);
 
-}
\ No newline at end of file
+}
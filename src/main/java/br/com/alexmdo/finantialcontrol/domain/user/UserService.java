@@ -1,19 +1,27 @@
 package br.com.alexmdo.finantialcontrol.domain.user;
 
-import br.com.alexmdo.finantialcontrol.infra.BusinessException;
+import br.com.alexmdo.finantialcontrol.domain.auth.PrincipalCache;
+import br.com.alexmdo.finantialcontrol.domain.auth.TokenRevocations;
+import br.com.alexmdo.finantialcontrol.infra.LoadShedding;
+import br.com.alexmdo.finantialcontrol.infra.TransactionalAsyncTemplate;
+import br.com.alexmdo.finantialcontrol.infra.VersionMismatchException;
 import br.com.alexmdo.finantialcontrol.domain.user.exception.UserAlreadyRegisteredException;
 import br.com.alexmdo.finantialcontrol.domain.user.exception.UserNotFoundException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
 
 @Service
 @RequiredArgsConstructor
@@ -21,72 +29,92 @@ import java.util.concurrent.CompletableFuture;
 public class UserService {
 
     private final UserRepository userRepository;
-
-    @Transactional
+    private final TransactionalAsyncTemplate transactionalAsyncTemplate;
+    private final LoadShedding loadShedding;
+    private final PrincipalCache principalCache;
+    private final TokenRevocations tokenRevocations;
+
+    /**
+     * Relies on the unique constraint on email instead of checking for the address first,
+     * so two concurrent sign-ups cannot both pass; the fallback turns the violation into
+     * {@link UserAlreadyRegisteredException}.
+     */
     @CircuitBreaker(name = "createUser", fallbackMethod = "createUserFallback")
     @TimeLimiter(name = "createUser")
     public CompletableFuture<User> createUserAsync(User user) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (userRepository.existsByEmail(user.getEmail())) {
-                throw new UserAlreadyRegisteredException("Email already exists");
-            }
-
-            return userRepository.save(user);
-        });
+        return transactionalAsyncTemplate.supplyAsync(() -> userRepository.save(user));
     }
 
-    @Transactional
+    /**
+     * Loads the user, applies the changes and saves it in one transaction, so the version
+     * the changes were checked against is the one the update is guarded by.
+     */
     @CircuitBreaker(name = "updateUser", fallbackMethod = "updateUserFallback")
     @TimeLimiter(name = "updateUser")
-    public CompletableFuture<User> updateUserAsync(User user) {
-        return CompletableFuture
-                .supplyAsync(() -> userRepository.findById(user.getId()))
-                .thenApply(userFound -> {
-                    if (userFound.isEmpty()) {
-                        throw new UserNotFoundException("User not found given the id");
-                    }
-
-                    var existingUser = userFound.get();
-                    var hasEmailChanged = !existingUser.getEmail().equals(user.getEmail());
-
-                    if (hasEmailChanged && userRepository.existsByEmail(user.getEmail())) {
-                        throw new UserAlreadyRegisteredException("Email already exists");
-                    }
-
-                    return userRepository.save(user);
-                });
+    public CompletableFuture<User> updateUserAsync(Long id, User user, UnaryOperator<User> changes) {
+        return transactionalAsyncTemplate.supplyAsync(() -> {
+            var existingUser = findUserByIdAndUser(id, user);
+            var previousEmail = existingUser.getEmail();
+            var previousPassword = existingUser.getPassword();
+            var changedUser = changes.apply(existingUser);
+            var hasEmailChanged = !previousEmail.equals(changedUser.getEmail());
+            var hasCredentialsChanged = hasEmailChanged || !previousPassword.equals(changedUser.getPassword());
+            if (hasCredentialsChanged) {
+                changedUser.setTokenVersion(changedUser.getTokenVersion() + 1);
+            }
+
+            // Flushed here so a taken email fails inside the transaction, not at commit
+            var updatedUser = userRepository.saveAndFlush(changedUser);
+            var userId = updatedUser.getId();
+            var tokenVersion = updatedUser.getTokenVersion();
+            afterCommit(() -> {
+                principalCache.invalidate(previousEmail);
+                if (hasCredentialsChanged) {
+                    tokenRevocations.revokeBefore(userId, tokenVersion);
+                }
+            });
+            return updatedUser;
+        });
     }
 
-    @Transactional
     @CircuitBreaker(name = "deleteUser", fallbackMethod = "deleteUserFallback")
     @TimeLimiter(name = "deleteUser")
     public CompletableFuture<Void> deleteUserAsync(Long id, User user) {
-        return CompletableFuture.runAsync(() -> {
+        return transactionalAsyncTemplate.runAsync(() -> {
             if (!Objects.equals(id, user.getId())) {
                 throw new UserNotFoundException("User not found given the id");
             }
 
             userRepository.deleteById(id);
+            afterCommit(() -> {
+                principalCache.invalidate(user.getEmail());
+                tokenRevocations.revokeAll(id);
+            });
         });
     }
 
     @CircuitBreaker(name = "getUserByIdAndUser", fallbackMethod = "getUserByIdAndUserFallback")
     @TimeLimiter(name = "getUserByIdAndUser")
     public CompletableFuture<User> getUserByIdAndUserAsync(Long id, User user) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (!Objects.equals(id, user.getId())) {
-                throw new UserNotFoundException("User not found given the id");
-            }
+        return transactionalAsyncTemplate.supplyReadOnlyAsync(() -> findUserByIdAndUser(id, user));
+    }
 
-            return userRepository.findById(id)
-                    .orElseThrow(() -> new UserNotFoundException("User not found given the id"));
-        });
+    /**
+     * Joins the caller's transaction; for use inside a {@link TransactionalAsyncTemplate} block.
+     */
+    public User findUserByIdAndUser(Long id, User user) {
+        if (!Objects.equals(id, user.getId())) {
+            throw new UserNotFoundException("User not found given the id");
+        }
+
+        return userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found given the id"));
     }
 
     @CircuitBreaker(name = "getUserByEmail", fallbackMethod = "getUserByEmailFallback")
     @TimeLimiter(name = "getUserByEmail")
     public CompletableFuture<User> getUserByEmailAsync(String email) {
-        return CompletableFuture.supplyAsync(() -> userRepository
+        return transactionalAsyncTemplate.supplyReadOnlyAsync(() -> userRepository
                 .findByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("User not found given the email")));
     }
@@ -94,79 +122,59 @@ public class UserService {
     @CircuitBreaker(name = "getAllUsers", fallbackMethod = "getAllUsersFallback")
     @TimeLimiter(name = "getAllUsers")
     public CompletableFuture<Page<User>> getAllUsersAsync(Pageable pageable) {
-        return CompletableFuture.supplyAsync(() -> userRepository.findAll(pageable));
+        return transactionalAsyncTemplate.supplyReadOnlyAsync(() -> userRepository.findAll(pageable));
     }
 
     public CompletableFuture<User> createUserFallback(User user, Throwable throwable) {
-        // Fallback logic for createUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for createUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null);
+        if (throwable instanceof DataIntegrityViolationException) {
+            throw new UserAlreadyRegisteredException("Email already exists");
         }
+        return loadShedding.fallback("createUser", throwable);
     }
 
-    public CompletableFuture<User> updateUserFallback(User user, Throwable throwable) {
-        // Fallback logic for updateUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for updateUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
+    public CompletableFuture<User> updateUserFallback(Long id, User user, UnaryOperator<User> changes, Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            throw new VersionMismatchException("The user was modified by another request. Fetch it again and retry.");
+        }
+        if (throwable instanceof DataIntegrityViolationException) {
+            throw new UserAlreadyRegisteredException("Email already exists");
         }
+        return loadShedding.fallback("updateUser", throwable);
     }
 
     public CompletableFuture<Void> deleteUserFallback(Long id, User user, Throwable throwable) {
-        // Fallback logic for deleteUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for deleteUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+        return loadShedding.fallback("deleteUser", throwable);
     }
 
     public CompletableFuture<User> getUserByIdAndUserFallback(Long id, User user, Throwable throwable) {
-        // Fallback logic for getUserByIdAndUserAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for getUserByIdAndUserAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+        return loadShedding.fallback("getUserByIdAndUser", throwable);
     }
 
     public CompletableFuture<User> getUserByEmailFallback(String email, Throwable throwable) {
-        // Fallback logic for getUserByEmailAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for getUserByEmailAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
-        }
+        return loadShedding.fallback("getUserByEmail", throwable);
     }
 
     public CompletableFuture<Page<User>> getAllUsersFallback(Pageable pageable, Throwable throwable) {
-        // Fallback logic for getAllUsersAsync
-        if (throwable instanceof BusinessException) {
-            throw (BusinessException) throwable;
-        } else {
-            // Handle other types of exceptions or fallback behavior
-            // Return a default or fallback value, or perform alternative logic
-            log.error("Fallback triggered for getAllUsersAsync due to: " + throwable.getMessage());
-            return CompletableFuture.completedFuture(null); // Return a default or fallback value
+        return loadShedding.fallback("getAllUsers", throwable);
+    }
+
+    /**
+     * Defers evicting the principal and revoking tokens until the change is committed, so a
+     * concurrent request cannot reload the old row into the cache and a rolled back change
+     * does not log the user out.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
 }
@@ -6,12 +6,13 @@ public record UserDto(
         Long id,
         String firstName,
         String lastName,
-        String email) {
+        String email,
+        Long version) {
 
     // Constructors, getters, and setters
 
     public static UserDto fromEntity(User user) {
-        return new UserDto(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail());
+        return new UserDto(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getVersion());
     }
 
     // Other methods if needed
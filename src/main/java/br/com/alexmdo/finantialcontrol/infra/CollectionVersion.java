@@ -0,0 +1,17 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+/**
+ * Summary of the rows a user owns in one table. Every insert or delete moves the id sum,
+ * since ids are never reused, and every update bumps one row's version, so two equal
+ * summaries mean the listing is unchanged. The highest id is not enough: pooled sequences
+ * hand each instance its own block, so a new row can get a lower id than an existing one.
+ * The highest version alone would miss updates to rows other than the most recently
+ * changed one.
+ */
+public record CollectionVersion(long count, long versionSum, long idSum) {
+
+    public String eTag() {
+        return ETags.quote(count + "-" + versionSum + "-" + idSum);
+    }
+
+}
@@ -0,0 +1,63 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One slice of a keyset-paginated listing. The cursor is an opaque encoding of the last
+ * id returned; passing it back as {@code after} continues with rows whose id is greater,
+ * so deep pages cost the same as the first one and no count query is needed.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * Builds the page from a query that fetched one row more than {@code limit}; that extra
+     * row only tells whether there is a next page and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> items, int limit, Function<T, Long> idExtractor) {
+        if (items.size() <= limit) {
+            return new CursorPage<>(items, null);
+        }
+
+        var pageItems = items.subList(0, limit);
+        return new CursorPage<>(pageItems, encode(idExtractor.apply(pageItems.get(limit - 1))));
+    }
+
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_LIMIT;
+        }
+
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            var bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length == Long.BYTES) {
+                var id = ByteBuffer.wrap(bytes).getLong();
+                if (id >= 0) {
+                    return id;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+
+        throw new InvalidCursorException("Invalid cursor: " + cursor);
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(id).array());
+    }
+
+}
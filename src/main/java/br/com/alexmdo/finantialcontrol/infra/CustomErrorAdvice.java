@@ -2,7 +2,9 @@ package br.com.alexmdo.finantialcontrol.infra;
 
 import br.com.alexmdo.finantialcontrol.domain.account.exception.AccountNotArchivedException;
 import br.com.alexmdo.finantialcontrol.domain.account.exception.AccountNotFoundException;
+import br.com.alexmdo.finantialcontrol.domain.auth.exception.LoginThrottledException;
 import br.com.alexmdo.finantialcontrol.domain.category.exception.CategoryAlreadyExistsException;
+import br.com.alexmdo.finantialcontrol.domain.category.exception.CategoryBatchTooLargeException;
 import br.com.alexmdo.finantialcontrol.domain.category.exception.CategoryNotFoundException;
 import br.com.alexmdo.finantialcontrol.domain.creditcard.exception.CreditCardNotArchivedException;
 import br.com.alexmdo.finantialcontrol.domain.creditcard.exception.CreditCardNotFoundException;
@@ -13,6 +15,7 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -44,7 +47,7 @@ public class CustomErrorAdvice {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
-    @ExceptionHandler({ UserAlreadyRegisteredException.class, AccountNotArchivedException.class, CategoryAlreadyExistsException.class, CreditCardNotArchivedException.class })
+    @ExceptionHandler({ UserAlreadyRegisteredException.class, AccountNotArchivedException.class, CategoryAlreadyExistsException.class, CreditCardNotArchivedException.class, VersionMismatchException.class })
     public ResponseEntity<ErrorResponse> handleBusinessException(Exception ex, HttpServletRequest request) {
         log.error("Precondition error", ex);
         ErrorResponse errorResponse = new ErrorResponse(HttpStatus.PRECONDITION_FAILED.value(),
@@ -52,6 +55,39 @@ public class CustomErrorAdvice {
         return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
     }
 
+    @ExceptionHandler({ InvalidCursorException.class, CategoryBatchTooLargeException.class })
+    public ResponseEntity<ErrorResponse> handleBadRequestException(Exception ex, HttpServletRequest request) {
+        log.error("Bad request error", ex);
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.BAD_REQUEST.getReasonPhrase(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(Exception ex, HttpServletRequest request) {
+        log.warn("Too many requests: {}", ex.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(),
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleGatewayTimeoutException(Exception ex, HttpServletRequest request) {
+        log.warn("Deadline exceeded: {}", ex.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.GATEWAY_TIMEOUT.value(),
+                HttpStatus.GATEWAY_TIMEOUT.getReasonPhrase(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+
     @ExceptionHandler({MethodArgumentNotValidException.class, HttpMessageNotReadableException.class})
     public ResponseEntity<List<ValidationErrorResponse>> handleError400(MethodArgumentNotValidException e) {
         log.error("Validation error", e);
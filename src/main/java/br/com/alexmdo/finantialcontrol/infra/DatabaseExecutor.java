@@ -0,0 +1,46 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking persistence work off the request thread. Every *Service async
+ * method goes through here instead of the common ForkJoinPool, so the number of
+ * concurrent JDBC calls is bounded by the configured executor. Tasks, and the
+ * completion stages they trigger, run under the request {@link Deadline} of the
+ * thread that submitted them.
+ */
+public class DatabaseExecutor implements AutoCloseable {
+
+    private final Executor executor;
+
+    public DatabaseExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, this::execute);
+    }
+
+    public CompletableFuture<Void> runAsync(Runnable runnable) {
+        return CompletableFuture.runAsync(runnable, this::execute);
+    }
+
+    private void execute(Runnable task) {
+        executor.execute(Deadline.propagate(task));
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void close() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+}
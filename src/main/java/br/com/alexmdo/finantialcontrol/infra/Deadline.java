@@ -0,0 +1,111 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which the caller stops waiting for a result. The deadline in effect is
+ * kept per thread while a service method runs, and {@link TransactionalAsyncTemplate}
+ * captures it when work is submitted, so the database side can stop when the caller has.
+ * <p>
+ * The deadline the client sent with the request is tracked apart from the ones service
+ * methods narrow it to. Only the request's follows work onto other threads, so a call made
+ * from a completion stage is bounded by what is left of the request, not by the budget of
+ * the call whose result it continues from.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Deadline> REQUEST = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * The deadline in effect on this thread, or null when there is none.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes the earlier of this deadline and the one already in effect current on this
+     * thread until the returned scope is closed.
+     */
+    public Scope bind() {
+        var previous = CURRENT.get();
+        CURRENT.set(previous == null || expiresAtNanos - previous.expiresAtNanos < 0 ? this : previous);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Makes this the request's deadline on this thread, and the deadline in effect, until
+     * the returned scope is closed.
+     */
+    public Scope bindRequest() {
+        var previous = REQUEST.get();
+        REQUEST.set(this);
+        var scope = bind();
+        return () -> {
+            scope.close();
+            if (previous == null) {
+                REQUEST.remove();
+            } else {
+                REQUEST.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Wraps the task so it runs under the request deadline of the submitting thread.
+     */
+    public static Runnable propagate(Runnable task) {
+        var request = REQUEST.get();
+        if (request == null) {
+            return task;
+        }
+
+        return () -> {
+            try (var scope = request.bindRequest()) {
+                task.run();
+            }
+        };
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Remaining time rounded up to whole seconds, the granularity of transaction and JDBC
+     * statement timeouts.
+     */
+    public int remainingSeconds() {
+        var nanos = remaining().toNanos();
+        return (int) Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+}
@@ -0,0 +1,9 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+public class DeadlineExceededException extends BusinessException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,88 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Strong entity tags built from the {@code @Version} columns, so that conditional requests
+ * can be answered without serializing the resource again.
+ */
+public final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    public static String of(Long id, Long version) {
+        return quote(id + "-" + version);
+    }
+
+    static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    /**
+     * A 200 carrying the tag. For GET requests Spring compares it with If-None-Match and
+     * answers 304 without writing the body.
+     */
+    public static <T> ResponseEntity<T> ok(String eTag, T body) {
+        return ResponseEntity.ok().eTag(eTag).body(body);
+    }
+
+    /**
+     * Answers a listing from its {@link CollectionVersion} alone when the client already has
+     * it, so neither the page query nor the serialization runs. The version is read before
+     * the page: a write in between leaves the old tag on the new page, which only costs the
+     * client one more full response.
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> conditionalGet(
+            String ifNoneMatch, CollectionVersion version, Supplier<CompletableFuture<T>> body) {
+        if (version == null) {
+            return body.get().thenApply(ResponseEntity::ok);
+        }
+
+        var eTag = version.eTag();
+        if (matches(ifNoneMatch, eTag)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
+        }
+
+        return body.get().thenApply(result -> ok(eTag, result));
+    }
+
+    /**
+     * If-None-Match semantics: weak comparison, {@code *} matches any current representation.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(candidate -> candidate.startsWith(WEAK_PREFIX) ? candidate.substring(WEAK_PREFIX.length()) : candidate)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(eTag));
+    }
+
+    /**
+     * If-Match semantics: strong comparison, so weak tags never match. Requests without the
+     * header are unconditional.
+     */
+    public static void requireMatch(String ifMatch, String eTag) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return;
+        }
+
+        var matched = Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(eTag));
+        if (!matched) {
+            throw new VersionMismatchException("The resource was modified since it was read. Fetch it again and retry.");
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+
+/**
+ * Shared field values of the application's Flight Recorder events. Users are reported
+ * by bucket rather than id, so recordings can be shared without identifying anyone
+ * while still showing whether the time goes to a few heavy users.
+ */
+public final class FlightRecorderEvents {
+
+    static final int USER_BUCKETS = 64;
+
+    private FlightRecorderEvents() {
+    }
+
+    public static int userBucket(Long userId) {
+        return userId == null ? -1 : (int) Math.floorMod(userId, USER_BUCKETS);
+    }
+
+    /**
+     * The bucket of the first {@link User} among the arguments of an intercepted call.
+     */
+    static int userBucket(Object[] args) {
+        for (var arg : args) {
+            if (arg instanceof User user) {
+                return userBucket(user.getId());
+            }
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,120 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Starts, dumps and stops a Flight Recorder recording at {@code /actuator/flightrecording}:
+ * POST starts one with the JDK's default settings plus the application events of
+ * {@value #PROFILE}, GET downloads what it holds so far and DELETE stops it. Only one
+ * recording is kept; it retains the last {@code app.jfr.max-age} of data. Starting again
+ * after a recording ended on its own, once its duration elapsed, replaces it.
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+@Log4j2
+public class FlightRecordingEndpoint {
+
+    static final String PROFILE = "/jfr/finantialcontrol.jfc";
+
+    private final Duration maxAge;
+    private final Map<String, String> settings;
+    private Recording recording;
+
+    public FlightRecordingEndpoint(@Value("${app.jfr.max-age:10m}") Duration maxAge) {
+        this.maxAge = maxAge;
+        this.settings = loadSettings();
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Duration duration) {
+        if (recording != null && recording.getState() != RecordingState.RUNNING) {
+            recording.close();
+            recording = null;
+        }
+        if (recording == null) {
+            recording = new Recording(settings);
+            recording.setName("finantialcontrol");
+            recording.setToDisk(true);
+            recording.setMaxAge(maxAge);
+            if (duration != null) {
+                recording.setDuration(duration);
+            }
+            recording.start();
+            log.info("Flight recording started, keeping the last {}", maxAge);
+        }
+        return status();
+    }
+
+    @ReadOperation
+    public synchronized WebEndpointResponse<Resource> dump() throws IOException {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        var file = Files.createTempFile("finantialcontrol-", ".jfr");
+        recording.dump(file);
+        // Removed once the response has been streamed
+        return new WebEndpointResponse<>(new InputStreamResource(
+                Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)));
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            log.info("Flight recording stopped");
+        }
+        return status();
+    }
+
+    private Map<String, Object> status() {
+        if (recording == null) {
+            return Map.of("state", "STOPPED");
+        }
+        return Map.of(
+                "state", recording.getState().name(),
+                "startTime", String.valueOf(recording.getStartTime()),
+                "maxAge", maxAge.toString());
+    }
+
+    private static Map<String, String> loadSettings() {
+        try (var profile = FlightRecordingEndpoint.class.getResourceAsStream(PROFILE)) {
+            if (profile == null) {
+                throw new IllegalStateException("Missing Flight Recorder profile " + PROFILE);
+            }
+            var merged = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            merged.putAll(Configuration.create(new InputStreamReader(profile, StandardCharsets.UTF_8)).getSettings());
+            return Map.copyOf(merged);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid Flight Recorder profile " + PROFILE, e);
+        }
+    }
+
+}
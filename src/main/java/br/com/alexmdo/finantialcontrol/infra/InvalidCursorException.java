@@ -0,0 +1,9 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+public class InvalidCursorException extends BusinessException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,68 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Shared tail of every service fallback. Business errors go back to the caller unchanged.
+ * A call refused because its circuit is open, or because the database executor queue (or
+ * a Resilience4j bulkhead) is full, is shed with a 503 straight away, with Retry-After set
+ * to the breaker's wait in the open state or to {@link #BULKHEAD_RETRY_AFTER}. A call
+ * that ran out of its TimeLimiter budget becomes a 504; anything else is passed on as is.
+ * <p>
+ * Each shed call increments {@code service.shed}, tagged with the operation (the circuit
+ * breaker name) and the reason, {@code circuit_open} or {@code bulkhead_full}.
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class LoadShedding {
+
+    static final String METRIC = "service.shed";
+    static final Duration BULKHEAD_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public <T> CompletableFuture<T> fallback(String operation, Throwable throwable) {
+        if (throwable instanceof BusinessException businessException) {
+            throw businessException;
+        } else if (throwable instanceof CallNotPermittedException) {
+            var waitInOpenState = circuitBreakerRegistry.circuitBreaker(operation)
+                    .getCircuitBreakerConfig()
+                    .getWaitIntervalFunctionInOpenState()
+                    .apply(1);
+            throw shed(operation, "circuit_open", Duration.ofMillis(waitInOpenState));
+        } else if (throwable instanceof RejectedExecutionException || throwable instanceof BulkheadFullException) {
+            throw shed(operation, "bulkhead_full", BULKHEAD_RETRY_AFTER);
+        } else if (throwable instanceof TimeoutException) {
+            throw new DeadlineExceededException(operation + " did not complete within its time limit");
+        }
+
+        log.error("Fallback triggered for " + operation + " due to: " + throwable.getMessage());
+        return CompletableFuture.failedFuture(throwable);
+    }
+
+    private ServiceUnavailableException shed(String operation, String reason, Duration retryAfter) {
+        Counter.builder(METRIC)
+                .description("Calls refused without running because the service is overloaded")
+                .tag("operation", operation)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        log.warn("Shedding {}: {}", operation, reason);
+        return new ServiceUnavailableException(operation + " is temporarily unavailable", retryAfter);
+    }
+
+}
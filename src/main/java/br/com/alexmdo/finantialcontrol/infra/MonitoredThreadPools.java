@@ -0,0 +1,47 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size pools with a bounded queue that fail fast with a RejectedExecutionException
+ * once the queue is full. Queue depth, active count and rejections are published as
+ * executor metrics tagged with the pool name.
+ */
+public final class MonitoredThreadPools {
+
+    private MonitoredThreadPools() {
+    }
+
+    public static ExecutorService bounded(String name, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        var rejected = Counter.builder("executor.rejected")
+                .description("Tasks rejected because the executor queue was full")
+                .tag("name", name)
+                .register(meterRegistry);
+        var abortPolicy = new ThreadPoolExecutor.AbortPolicy();
+        var executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory(name + "-exec-"),
+                (task, pool) -> {
+                    rejected.increment();
+                    abortPolicy.rejectedExecution(task, pool);
+                });
+        return monitor(name, executor, meterRegistry);
+    }
+
+    public static ExecutorService monitor(String name, ExecutorService executor, MeterRegistry meterRegistry) {
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, name, List.of());
+    }
+
+}
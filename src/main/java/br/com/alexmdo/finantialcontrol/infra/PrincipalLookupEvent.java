@@ -0,0 +1,27 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning the lookup of the authenticated user by the security
+ * filter, whether it is served by the principal cache or loaded from the database.
+ */
+@Name("finantialcontrol.PrincipalLookup")
+@Label("Principal Lookup")
+@Category({"Finantial Control", "Security"})
+@Description("Resolving the user a verified token belongs to")
+@StackTrace(false)
+public class PrincipalLookupEvent extends jdk.jfr.Event {
+
+    @Label("User Bucket")
+    @Description("The user id modulo " + FlightRecorderEvents.USER_BUCKETS + ", or -1 without a user")
+    public int userBucket;
+
+    @Label("Outcome")
+    public String outcome;
+
+}
@@ -0,0 +1,156 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Sends read-only transactions to the replica pools, round robin, and everything else to
+ * the primary. The key is resolved when the first statement needs a physical connection,
+ * so this must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * for the transaction's read-only flag to be known by then.
+ * <p>
+ * Replicas trail the primary, so a user who just committed a write keeps reading from the
+ * primary for the configured lag tolerance and sees their own changes. The user is taken
+ * from the security context, which the database executor propagates to its threads.
+ * Lookups made while authenticating have no user yet, so stickiness cannot cover them;
+ * they run inside {@link #onPrimary}, or a lagging replica would reject a new registration
+ * or a token issued after a password change.
+ */
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final List<String> replicaKeys;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Cache<Long, Boolean> recentWriters;
+    private final Map<String, Counter> routedConnections = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    Duration replicaLagTolerance, MeterRegistry meterRegistry) {
+        this(primary, replicas, replicaLagTolerance, meterRegistry, Ticker.systemTicker());
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                             Duration replicaLagTolerance, MeterRegistry meterRegistry, Ticker ticker) {
+        var targets = new HashMap<Object, Object>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(replicaKey(i), replicas.get(i));
+        }
+        this.replicaKeys = IntStream.range(0, replicas.size()).mapToObj(ReplicaRoutingDataSource::replicaKey).toList();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(replicaLagTolerance)
+                .ticker(ticker)
+                .build();
+        targets.keySet().forEach(key -> routedConnections.put((String) key, Counter.builder("datasource.routing")
+                .description("Physical connections handed out, by the pool they were routed to")
+                .tag("pool", (String) key)
+                .register(meterRegistry)));
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs {@code action} with every connection it obtains routed to the primary, read-only
+     * or not. A connection the surrounding transaction already holds is kept as it is.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        var previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            FORCE_PRIMARY.set(previous);
+        }
+    }
+
+    public static String replicaKey(int index) {
+        return "replica-" + (index + 1);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var key = lookupKey();
+        routedConnections.get(key).increment();
+        return key;
+    }
+
+    private String lookupKey() {
+        var userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            markWriterOnCommit(userId);
+            return PRIMARY;
+        }
+
+        if (replicaKeys.isEmpty() || FORCE_PRIMARY.get() != null
+                || (userId != null && recentWriters.getIfPresent(userId) != null)) {
+            return PRIMARY;
+        }
+
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private void markWriterOnCommit(Long userId) {
+        if (userId == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentWriters.put(userId, Boolean.TRUE);
+            return;
+        }
+
+        // The lag window starts once the write is visible on the primary
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close data source: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Long currentUserId() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+}
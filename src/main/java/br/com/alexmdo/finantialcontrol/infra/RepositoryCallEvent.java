@@ -0,0 +1,31 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning a call to a Spring Data repository, on the thread that
+ * makes it. Nested calls, such as a default method calling a query method, get an event each.
+ */
+@Name("finantialcontrol.RepositoryCall")
+@Label("Repository Call")
+@Category({"Finantial Control", "Database"})
+@Description("A call to a Spring Data repository method")
+@StackTrace(false)
+public class RepositoryCallEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("Repository and method, e.g. AccountRepository.findByIdAndUser")
+    public String operation;
+
+    @Label("User Bucket")
+    @Description("The user id modulo " + FlightRecorderEvents.USER_BUCKETS + ", or -1 without a user")
+    public int userBucket;
+
+    @Label("Outcome")
+    public String outcome;
+
+}
@@ -0,0 +1,59 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import jdk.jfr.EventType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits a {@link RepositoryCallEvent} around every Spring Data repository call. The advice
+ * is part of every repository proxy's interceptor chain, so each call pays for a join point
+ * and its argument array whether or not a recording is running; that is small next to the
+ * JDBC round trip behind it. While the event is disabled the call proceeds straight away,
+ * without the event or the name and user bucket lookups.
+ */
+@Aspect
+@Component
+public class RepositoryCallEventAspect {
+
+    private static final EventType REPOSITORY_CALL = EventType.getEventType(RepositoryCallEvent.class);
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!REPOSITORY_CALL.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        var event = new RepositoryCallEvent();
+        event.begin();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            failure = throwable;
+            throw throwable;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = repositoryName(joinPoint) + "." + joinPoint.getSignature().getName();
+                event.userBucket = FlightRecorderEvents.userBucket(joinPoint.getArgs());
+                event.outcome = ServiceOperationMetricsAspect.outcome(failure);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * The application's repository interface, rather than the Spring Data interface that
+     * declares inherited methods such as {@code save}.
+     */
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        var interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getTarget());
+        return interfaces.length > 0
+                ? interfaces[0].getSimpleName()
+                : joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+
+}
@@ -0,0 +1,92 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the latency budget the gateway has left for the call from {@code X-Request-Deadline}
+ * and makes it the request's {@link Deadline}. The value uses the grpc-timeout format: up to
+ * eight digits followed by a unit, {@code H}, {@code M}, {@code S}, {@code m} (millis),
+ * {@code u} (micros) or {@code n} (nanos), e.g. {@code 1500m}. Budgets above
+ * {@code app.request.max-deadline} are cut down to it, which also keeps values such as
+ * {@code 99999999H} within what a nanosecond deadline can hold.
+ * <p>
+ * Runs first, so a request whose budget is already spent is answered with 504 before
+ * authentication or any other database work.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Log4j2
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Deadline";
+
+    private static final Pattern TIMEOUT = Pattern.compile("(\\d{1,8})([HMSmun])");
+
+    private final Duration maxTimeout;
+
+    public RequestDeadlineFilter(@Value("${app.request.max-deadline:5m}") Duration maxTimeout) {
+        this.maxTimeout = maxTimeout;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var header = request.getHeader(HEADER);
+        if (header == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        var timeout = parseTimeout(header);
+        if (timeout == null) {
+            log.warn("Rejecting {} {}: malformed {} header '{}'", request.getMethod(), request.getRequestURI(), HEADER, header);
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+
+        var deadline = Deadline.after(timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout);
+        if (deadline.isExpired()) {
+            log.warn("Rejecting {} {}: deadline of {} already passed", request.getMethod(), request.getRequestURI(), header);
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            return;
+        }
+
+        try (var scope = deadline.bindRequest()) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    static Duration parseTimeout(String value) {
+        var matcher = TIMEOUT.matcher(value.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        var amount = Long.parseLong(matcher.group(1));
+        var unit = switch (matcher.group(2)) {
+            case "H" -> ChronoUnit.HOURS;
+            case "M" -> ChronoUnit.MINUTES;
+            case "S" -> ChronoUnit.SECONDS;
+            case "m" -> ChronoUnit.MILLIS;
+            case "u" -> ChronoUnit.MICROS;
+            default -> ChronoUnit.NANOS;
+        };
+        return Duration.of(amount, unit);
+    }
+
+}
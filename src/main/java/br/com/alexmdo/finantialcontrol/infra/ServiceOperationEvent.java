@@ -0,0 +1,30 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning a service operation from the call until its future
+ * completes, so the time spent on the database executor can be attributed to it.
+ */
+@Name("finantialcontrol.ServiceOperation")
+@Label("Service Operation")
+@Category({"Finantial Control", "Service"})
+@Description("A service operation from the call until the returned future completes")
+@StackTrace(false)
+public class ServiceOperationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("User Bucket")
+    @Description("The user id modulo " + FlightRecorderEvents.USER_BUCKETS + ", or -1 without a user")
+    public int userBucket;
+
+    @Label("Outcome")
+    public String outcome;
+
+}
@@ -0,0 +1,93 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Times every service operation, named after its circuit breaker, from the call until the
+ * returned future completes. Ordered outermost, around the Resilience4j aspects, so the
+ * time includes queueing and the outcome is what the controller gets back:
+ * {@code success}, {@code business_error}, {@code timeout}, {@code fallback} (shed by the
+ * fallback without running) or {@code error}.
+ * <p>
+ * Histogram buckets and SLOs for {@value #METRIC} are set in application.properties.
+ * The same span is emitted as a {@link ServiceOperationEvent} for Flight Recorder.
+ */
+@Aspect
+@Component
+// Just after Spring's ExposeInvocationInterceptor, which annotation binding needs
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class ServiceOperationMetricsAspect {
+
+    static final String METRIC = "service.operation";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(circuitBreaker)")
+    public Object time(ProceedingJoinPoint joinPoint, CircuitBreaker circuitBreaker) throws Throwable {
+        var sample = Timer.start(meterRegistry);
+        var event = new ServiceOperationEvent();
+        event.begin();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable throwable) {
+            record(sample, event, circuitBreaker.name(), joinPoint.getArgs(), throwable);
+            throw throwable;
+        }
+
+        if (result instanceof CompletionStage<?> stage) {
+            // Hand back the dependent stage so the sample is recorded before callers see the result
+            return stage.whenComplete((value, throwable) ->
+                    record(sample, event, circuitBreaker.name(), joinPoint.getArgs(), throwable));
+        }
+        record(sample, event, circuitBreaker.name(), joinPoint.getArgs(), null);
+        return result;
+    }
+
+    private void record(Timer.Sample sample, ServiceOperationEvent event, String operation, Object[] args,
+                        Throwable throwable) {
+        var outcome = outcome(throwable);
+        sample.stop(Timer.builder(METRIC)
+                .description("Service operations from the call until the returned future completes")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.userBucket = FlightRecorderEvents.userBucket(args);
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    static String outcome(Throwable throwable) {
+        var cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        if (cause == null) {
+            return "success";
+        } else if (cause instanceof DeadlineExceededException || cause instanceof TimeoutException) {
+            return "timeout";
+        } else if (cause instanceof ServiceUnavailableException) {
+            return "fallback";
+        } else if (cause instanceof BusinessException) {
+            return "business_error";
+        }
+        return "error";
+    }
+
+}
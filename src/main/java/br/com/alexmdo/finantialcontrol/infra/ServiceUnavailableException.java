@@ -0,0 +1,21 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends BusinessException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Retry-After value in whole seconds, rounded up.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+}
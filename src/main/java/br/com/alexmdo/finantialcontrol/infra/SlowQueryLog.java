@@ -0,0 +1,127 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Receives the execution time of every JDBC statement. Statements slower than the threshold
+ * are logged as structured warnings and one in every {@code sample-rate} of the rest at info,
+ * always as a fingerprint: the SQL with literals replaced by {@code ?}, {@code in} lists reduced
+ * to one placeholder and whitespace collapsed, so neither bound parameters nor inlined values
+ * reach the log. Fingerprints are cached per SQL string, up to {@code fingerprint-cache-size}
+ * strings, so the regexes only run the first time a statement text is seen.
+ * <p>
+ * Count, total time and p99 are kept per fingerprint, up to {@code max-fingerprints}; later
+ * shapes are folded into {@link #OTHER}. The p99 covers the last couple of minutes.
+ */
+@Component
+@Log4j2
+public class SlowQueryLog {
+
+    public static final String OTHER = "other";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Duration threshold;
+    private final long sampleRate;
+    private final int maxFingerprints;
+    private final AtomicLong executed = new AtomicLong();
+    private final SimpleMeterRegistry statistics = new SimpleMeterRegistry();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Cache<String, String> fingerprints;
+
+    public SlowQueryLog(@Value("${app.jdbc.slow-query.threshold:200ms}") Duration threshold,
+                        @Value("${app.jdbc.slow-query.sample-rate:0}") long sampleRate,
+                        @Value("${app.jdbc.slow-query.max-fingerprints:500}") int maxFingerprints,
+                        @Value("${app.jdbc.slow-query.fingerprint-cache-size:2000}") long fingerprintCacheSize) {
+        this.threshold = threshold;
+        this.sampleRate = sampleRate;
+        this.maxFingerprints = maxFingerprints;
+        this.fingerprints = Caffeine.newBuilder()
+                .maximumSize(fingerprintCacheSize)
+                .build();
+    }
+
+    public void record(String sql, long elapsedNanos) {
+        var fingerprint = sql == null ? fingerprint(null) : fingerprints.get(sql, SlowQueryLog::fingerprint);
+        timer(fingerprint).record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        var slow = elapsedNanos >= threshold.toNanos();
+        var sampled = sampleRate > 0 && executed.incrementAndGet() % sampleRate == 0;
+        if (slow || sampled) {
+            var message = new StringMapMessage()
+                    .with("event", slow ? "slow_statement" : "sampled_statement")
+                    .with("elapsed_ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)))
+                    .with("threshold_ms", String.valueOf(threshold.toMillis()))
+                    .with("sql", fingerprint);
+            if (slow) {
+                log.warn(message);
+            } else {
+                log.info(message);
+            }
+        }
+    }
+
+    /**
+     * Statistics per fingerprint, the most total time first.
+     */
+    public List<StatementStatistics> statistics() {
+        return timers.entrySet().stream()
+                .map(entry -> {
+                    var snapshot = entry.getValue().takeSnapshot();
+                    var p99 = snapshot.percentileValues().length > 0
+                            ? snapshot.percentileValues()[0].value(TimeUnit.MILLISECONDS)
+                            : 0;
+                    return new StatementStatistics(entry.getKey(), snapshot.count(),
+                            snapshot.total(TimeUnit.MILLISECONDS), p99);
+                })
+                .sorted(Comparator.comparingDouble(StatementStatistics::totalMillis).reversed())
+                .toList();
+    }
+
+    static String fingerprint(String sql) {
+        if (sql == null) {
+            return "batch";
+        }
+
+        var fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = IN_LIST.matcher(fingerprint).replaceAll("in (?)");
+        return WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+    }
+
+    private Timer timer(String fingerprint) {
+        var timer = timers.get(fingerprint);
+        if (timer != null) {
+            return timer;
+        }
+
+        var key = timers.size() < maxFingerprints ? fingerprint : OTHER;
+        return timers.computeIfAbsent(key, __ -> Timer.builder("jdbc.statement")
+                .tag("fingerprint", key)
+                .publishPercentiles(0.99)
+                .register(statistics));
+    }
+
+    public record StatementStatistics(String fingerprint, long count, double totalMillis, double p99Millis) {
+    }
+
+}
@@ -0,0 +1,25 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Exposes the {@link SlowQueryLog} statistics at {@code /actuator/sqlstatements}.
+ */
+@Component
+@Endpoint(id = "sqlstatements")
+@RequiredArgsConstructor
+public class SqlStatementsEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public List<SlowQueryLog.StatementStatistics> statements() {
+        return slowQueryLog.statistics();
+    }
+
+}
@@ -0,0 +1,101 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Hands out connections whose statements report how long each execution took to the
+ * {@link SlowQueryLog}. Only the SQL text is seen; bound parameter values never leave the
+ * driver. The time covers the execute call, not reading the rows of a result set.
+ */
+public class StatementTimingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final SlowQueryLog slowQueryLog;
+
+    public StatementTimingDataSource(DataSource targetDataSource, SlowQueryLog slowQueryLog) {
+        super(targetDataSource);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    /**
+     * Closes the wrapped pool, since the container only sees this wrapper at shutdown.
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection timed(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            var result = invoke(connection, method, args);
+            if (result instanceof Statement statement && method.getName().startsWith("prepare")) {
+                return timed(statement, (String) args[0]);
+            } else if (result instanceof Statement statement) {
+                return timed(statement, null);
+            }
+            return result;
+        });
+    }
+
+    private Statement timed(Statement statement, String preparedSql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!EXECUTE_METHODS.contains(method.getName())) {
+                return invoke(statement, method, args);
+            }
+
+            var sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            var start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                slowQueryLog.record(sql, System.nanoTime() - start);
+            }
+        };
+
+        if (statement instanceof CallableStatement callableStatement) {
+            return proxy(CallableStatement.class, callableStatement, handler);
+        } else if (statement instanceof PreparedStatement preparedStatement) {
+            return proxy(PreparedStatement.class, preparedStatement, handler);
+        }
+        return proxy(Statement.class, statement, handler);
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Turns the timeout of a {@code @TimeLimiter} method into the current {@link Deadline}
+ * while the method runs, so the database work it submits is bounded by the same budget,
+ * or by the request's if that ends sooner. A method called after the deadline has passed
+ * fails straight away without running.
+ * Ordered innermost, inside the Resilience4j aspects, so the clock starts with the limiter's.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TimeLimiterDeadlineAspect {
+
+    private final TimeLimiterRegistry timeLimiterRegistry;
+
+    @Around("@annotation(timeLimiter)")
+    public Object bindDeadline(ProceedingJoinPoint joinPoint, TimeLimiter timeLimiter) throws Throwable {
+        var current = Deadline.current();
+        if (current != null && current.isExpired()) {
+            return CompletableFuture.failedFuture(new DeadlineExceededException(
+                    "Deadline passed before " + joinPoint.getSignature().getName() + " was called"));
+        }
+
+        var timeout = timeLimiterRegistry.timeLimiter(timeLimiter.name()).getTimeLimiterConfig().getTimeoutDuration();
+        try (var scope = Deadline.after(timeout).bind()) {
+            return joinPoint.proceed();
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning the decoding and signature check of a JWT.
+ */
+@Name("finantialcontrol.TokenVerification")
+@Label("Token Verification")
+@Category({"Finantial Control", "Security"})
+@Description("Decoding and verifying the signature of a JWT")
+@StackTrace(false)
+public class TokenVerificationEvent extends jdk.jfr.Event {
+
+    @Label("User Bucket")
+    @Description("The user id modulo " + FlightRecorderEvents.USER_BUCKETS + ", or -1 without a user")
+    public int userBucket;
+
+    @Label("Outcome")
+    public String outcome;
+
+}
@@ -0,0 +1,226 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.JDBCException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.resource.jdbc.ResourceRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work on the {@link DatabaseExecutor} inside a single transaction.
+ * {@code @Transactional} has no effect on the async service methods because the
+ * work happens on another thread, so find-mutate-save chains must be submitted
+ * here as one block to share a connection and commit once.
+ * <p>
+ * Reads go through {@link #supplyReadOnlyAsync}: the JPA transaction manager then
+ * marks the session read-only and switches it to {@code FlushMode.MANUAL}, so loaded
+ * entities get no dirty-checking snapshot and nothing is flushed at commit.
+ * <p>
+ * The {@link Deadline} current on the submitting thread becomes the transaction timeout,
+ * which Spring hands to every query as its JDBC statement timeout. Work whose deadline has
+ * passed is never started and fails with a {@link DeadlineExceededException}, as does the
+ * returned future once the deadline passes mid-transaction. Cancelling the returned future
+ * (as the TimeLimiter does on timeout) cancels the statement in flight and rolls the
+ * transaction back, or skips the work if it has not started yet.
+ * <p>
+ * Deadlines are timed on a dedicated scheduler and each timer is dropped as soon as the work
+ * completes. Statements are cancelled on a separate pool, since a driver may block while it
+ * sends the cancel request, and neither the timer thread nor the thread completing the future
+ * should wait on that.
+ */
+@Component
+@Log4j2
+public class TransactionalAsyncTemplate implements DisposableBean {
+
+    private static final String DEADLINE_PASSED = "Deadline passed before the transaction started";
+    private static final int CANCEL_THREADS = 2;
+
+    private final DatabaseExecutor databaseExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ScheduledThreadPoolExecutor deadlineTimer;
+    private final ThreadPoolExecutor statementCanceller;
+
+    public TransactionalAsyncTemplate(DatabaseExecutor databaseExecutor, PlatformTransactionManager transactionManager) {
+        this.databaseExecutor = databaseExecutor;
+        this.transactionManager = transactionManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.deadlineTimer = new ScheduledThreadPoolExecutor(1, daemonThreads("deadline-timer-"));
+        this.deadlineTimer.setRemoveOnCancelPolicy(true);
+        this.statementCanceller = new ThreadPoolExecutor(CANCEL_THREADS, CANCEL_THREADS, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("statement-cancel-"));
+        this.statementCanceller.allowCoreThreadTimeOut(true);
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return submit(transactionTemplate, supplier);
+    }
+
+    public <T> CompletableFuture<T> supplyReadOnlyAsync(Supplier<T> supplier) {
+        return submit(readOnlyTransactionTemplate, supplier);
+    }
+
+    public CompletableFuture<Void> runAsync(Runnable runnable) {
+        return submit(transactionTemplate, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(TransactionTemplate template, Supplier<T> supplier) {
+        var deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.failedFuture(new DeadlineExceededException(DEADLINE_PASSED));
+        }
+
+        var work = new CancellableWork();
+        var future = databaseExecutor.supplyAsync(() -> {
+            if (work.isCancelled()) {
+                throw new CancellationException("Cancelled before the transaction started");
+            }
+            if (deadline != null && deadline.isExpired()) {
+                throw new DeadlineExceededException(DEADLINE_PASSED);
+            }
+
+            return withDeadline(template, deadline).execute(status -> {
+                work.start(status, currentResourceRegistry());
+                try {
+                    return supplier.get();
+                } finally {
+                    work.finish();
+                }
+            });
+        });
+        // The statement timeout only has whole seconds; this fails the call on time and cancels it
+        ScheduledFuture<?> deadlineTimeout = deadline == null ? null : deadlineTimer.schedule(
+                () -> future.completeExceptionally(new DeadlineExceededException(
+                        "Deadline passed while the transaction was running")),
+                deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        future.whenComplete((result, throwable) -> {
+            if (deadlineTimeout != null) {
+                deadlineTimeout.cancel(false);
+            }
+            if (throwable instanceof CancellationException || throwable instanceof DeadlineExceededException) {
+                statementCanceller.execute(work::cancel);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Deadline timers that have not fired or been dropped yet.
+     */
+    int pendingDeadlineTimers() {
+        return deadlineTimer.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        deadlineTimer.shutdownNow();
+        statementCanceller.shutdown();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        var threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private TransactionTemplate withDeadline(TransactionTemplate template, Deadline deadline) {
+        if (deadline == null) {
+            return template;
+        }
+
+        // Hibernate rounds the time left down to whole seconds and treats zero as expired,
+        // so without the extra second a one-second budget would fail the first statement
+        var boundedTemplate = new TransactionTemplate(transactionManager, template);
+        boundedTemplate.setTimeout(deadline.remainingSeconds() + 1);
+        return boundedTemplate;
+    }
+
+    /**
+     * Hibernate's registry of the statements open on the transaction's connection. Unlike
+     * {@code Session.cancelQuery()}, which only knows statements prepared for HQL, it sees
+     * every statement the session runs.
+     */
+    private ResourceRegistry currentResourceRegistry() {
+        if (transactionManager instanceof JpaTransactionManager jpaTransactionManager) {
+            EntityManagerFactory entityManagerFactory = jpaTransactionManager.getEntityManagerFactory();
+            if (TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder) {
+                return holder.getEntityManager()
+                        .unwrap(SharedSessionContractImplementor.class)
+                        .getJdbcCoordinator()
+                        .getLogicalConnection()
+                        .getResourceRegistry();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Links a submitted unit of work to the future handed to the caller. Cancellation can
+     * arrive from any thread at any point, so state changes are synchronized.
+     */
+    private static final class CancellableWork {
+
+        private boolean cancelled;
+        private TransactionStatus status;
+        private ResourceRegistry resourceRegistry;
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        synchronized void start(TransactionStatus status, ResourceRegistry resourceRegistry) {
+            if (cancelled) {
+                throw new CancellationException("Cancelled before the transaction started");
+            }
+            this.status = status;
+            this.resourceRegistry = resourceRegistry;
+        }
+
+        synchronized void finish() {
+            this.status = null;
+            this.resourceRegistry = null;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (status != null) {
+                status.setRollbackOnly();
+            }
+            if (resourceRegistry != null) {
+                try {
+                    // Statement.cancel() is meant to be called from another thread
+                    resourceRegistry.cancelLastQuery();
+                } catch (JDBCException e) {
+                    log.debug("Could not cancel the running statement: " + e.getMessage());
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,9 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+public class VersionMismatchException extends BusinessException {
+
+    public VersionMismatchException(String message) {
+        super(message);
+    }
+
+}
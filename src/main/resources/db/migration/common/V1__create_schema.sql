@@ -0,0 +1,45 @@
+create table users (
+    id bigint generated by default as identity primary key,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    constraint uk_users_email unique (email)
+);
+
+create table accounts (
+    id bigint generated by default as identity primary key,
+    initial_amount numeric(38, 2) not null,
+    financial_institution varchar(255),
+    description varchar(255),
+    account_type varchar(255) not null,
+    color varchar(255),
+    icon varchar(255),
+    archived boolean not null default false,
+    user_id bigint not null,
+    constraint fk_accounts_user foreign key (user_id) references users (id)
+);
+
+create table credit_cards (
+    id bigint generated by default as identity primary key,
+    credit_card_limit numeric(38, 2) not null,
+    description varchar(255),
+    brand varchar(255) not null,
+    closing_day integer not null check (closing_day >= 1 and closing_day <= 30),
+    due_date integer not null check (due_date >= 1 and due_date <= 30),
+    archived boolean not null default false,
+    account_id bigint not null,
+    constraint fk_credit_cards_account foreign key (account_id) references accounts (id)
+);
+
+create table categories (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    color varchar(255),
+    icon varchar(255),
+    type varchar(255) not null,
+    user_id bigint,
+    constraint uk_categories_name unique (name),
+    constraint fk_categories_user foreign key (user_id) references users (id)
+);
+
@@ -0,0 +1,8 @@
+-- Listings and keyset pages filter on the owner and walk the primary key in order
+create index idx_accounts_user_id_id on accounts (user_id, id);
+create index idx_credit_cards_account_id_id on credit_cards (account_id, id);
+create index idx_categories_user_id_id on categories (user_id, id);
+
+-- Archived/active lookups per owner
+create index idx_accounts_user_id_archived on accounts (user_id, archived);
+create index idx_credit_cards_account_id_archived on credit_cards (account_id, archived);
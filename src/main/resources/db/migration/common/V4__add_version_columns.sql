@@ -0,0 +1,5 @@
+-- Optimistic locking versions, also used to build the resource ETags
+alter table users add column version bigint default 0 not null;
+alter table accounts add column version bigint default 0 not null;
+alter table credit_cards add column version bigint default 0 not null;
+alter table categories add column version bigint default 0 not null;
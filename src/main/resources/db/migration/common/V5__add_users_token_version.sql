@@ -0,0 +1,3 @@
+-- Token revocation counter, bumped whenever the credentials change. "if not exists" covers
+-- databases baselined after Hibernate's schema update had already added it.
+alter table users add column if not exists token_version integer default 0;
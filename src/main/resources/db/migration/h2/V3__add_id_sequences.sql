@@ -0,0 +1,5 @@
+-- Ids come from sequences so that Hibernate can batch inserts; allocationSize = 50 on the entities
+create sequence users_seq start with 1 increment by 50;
+create sequence accounts_seq start with 1 increment by 50;
+create sequence credit_cards_seq start with 1 increment by 50;
+create sequence categories_seq start with 1 increment by 50;
@@ -0,0 +1,12 @@
+-- Ids come from sequences so that Hibernate can batch inserts; allocationSize = 50 on the entities.
+-- The pooled optimizer hands out the block that ends at the value it reads, so each sequence
+-- starts one block past the highest id already taken.
+create sequence users_seq start with 1 increment by 50;
+create sequence accounts_seq start with 1 increment by 50;
+create sequence credit_cards_seq start with 1 increment by 50;
+create sequence categories_seq start with 1 increment by 50;
+
+select setval('users_seq', (select coalesce(max(id), 0) from users) + 50, false);
+select setval('accounts_seq', (select coalesce(max(id), 0) from accounts) + 50, false);
+select setval('credit_cards_seq', (select coalesce(max(id), 0) from credit_cards) + 50, false);
+select setval('categories_seq', (select coalesce(max(id), 0) from categories) + 50, false);
@@ -0,0 +1,108 @@
+package br.com.alexmdo.finantialcontrol.configuration;
+
+import br.com.alexmdo.finantialcontrol.domain.account.AccountRepository;
+import br.com.alexmdo.finantialcontrol.domain.category.CategoryRepository;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCardRepository;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
+import br.com.alexmdo.finantialcontrol.util.TestUtil;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * The actuator endpoints other than health are limited to the accounts listed in
+ * {@code app.security.admin-emails}; the test profile lists admin@example.com. Metrics
+ * export is switched back on so the prometheus endpoint exists.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+
+    private static final String PASSWORD_HASH = "$2a$10$m9FiHBdOWEgZpnzylyc8ZOHSN5Lbt9qwG7lIJxpeq4KRJwa1oF/Tq";
+    private static final List<String> ADMIN_ENDPOINTS = List.of(
+            "/actuator/metrics", "/actuator/prometheus", "/actuator/sqlstatements", "/actuator/flightrecording");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CreditCardRepository creditCardRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        creditCardRepository.deleteAll();
+        accountRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+
+        userRepository.save(new User(null, "John", "Doe", "johndoe@example.com", PASSWORD_HASH));
+        userRepository.save(new User(null, "Ada", "Admin", "admin@example.com", PASSWORD_HASH));
+
+        RestAssured.port = port;
+    }
+
+    @Test
+    void regularUserIsForbiddenFromAdminEndpoints() {
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+
+        for (var endpoint : ADMIN_ENDPOINTS) {
+            given()
+                .port(port)
+                .header("Authorization", "Bearer " + token)
+            .when()
+                .get(endpoint)
+            .then()
+                .statusCode(HttpStatus.FORBIDDEN.value());
+        }
+    }
+
+    @Test
+    void regularUserCanReadHealth() {
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + token)
+        .when()
+            .get("/actuator/health")
+        .then()
+            .statusCode(HttpStatus.OK.value());
+    }
+
+    @Test
+    void adminCanReadAdminEndpoints() {
+        var token = TestUtil.authenticate("admin@example.com", "123456");
+
+        for (var endpoint : List.of("/actuator/metrics", "/actuator/prometheus", "/actuator/sqlstatements")) {
+            given()
+                .port(port)
+                .header("Authorization", "Bearer " + token)
+            .when()
+                .get(endpoint)
+            .then()
+                .statusCode(HttpStatus.OK.value());
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package br.com.alexmdo.finantialcontrol.configuration;
+
+import br.com.alexmdo.finantialcontrol.domain.auth.AuthService;
+import br.com.alexmdo.finantialcontrol.infra.TransactionalAsyncTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Boots the application with a replica pointing at the same in-memory database as the
+ * primary, so the schema is there, and checks which pool each kind of transaction uses.
+ */
+@SpringBootTest(properties = "app.datasource.replicas[0].jdbc-url=jdbc:h2:mem:finantial-control")
+@ActiveProfiles("test")
+class DataSourceRoutingConfigurationTest {
+
+    @Autowired
+    private TransactionalAsyncTemplate transactionalAsyncTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaPool() {
+        var replicaConnections = routedConnections("replica-1");
+        var primaryConnections = routedConnections("primary");
+
+        transactionalAsyncTemplate.supplyReadOnlyAsync(this::countUsers).join();
+        assertEquals(replicaConnections + 1, routedConnections("replica-1"));
+
+        transactionalAsyncTemplate.supplyAsync(this::countUsers).join();
+        assertEquals(primaryConnections + 1, routedConnections("primary"));
+    }
+
+    @Test
+    void principalLookupsUseThePrimaryPool() {
+        var replicaConnections = routedConnections("replica-1");
+        var primaryConnections = routedConnections("primary");
+
+        // Even inside a read-only transaction, which would otherwise pick the replica
+        transactionalAsyncTemplate.supplyReadOnlyAsync(() -> authService.loadUserByUsername("nobody@example.com"))
+                .exceptionally(throwable -> null)
+                .join();
+
+        assertEquals(primaryConnections + 1, routedConnections("primary"));
+        assertEquals(replicaConnections, routedConnections("replica-1"));
+    }
+
+    @Test
+    void eachPoolPublishesItsOwnMetrics() {
+        transactionalAsyncTemplate.supplyReadOnlyAsync(this::countUsers).join();
+        transactionalAsyncTemplate.supplyAsync(this::countUsers).join();
+
+        assertNotNull(meterRegistry.get("hikaricp.connections").tag("pool", "primary").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections").tag("pool", "replica-1").gauge());
+    }
+
+    private Long countUsers() {
+        return jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+    }
+
+    private double routedConnections(String pool) {
+        return meterRegistry.get("datasource.routing").tag("pool", pool).counter().count();
+    }
+
+}
@@ -0,0 +1,51 @@
+package br.com.alexmdo.finantialcontrol.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseExecutorConfigurationTest {
+
+    @Test
+    void virtualModeRunsTasksOnVirtualThreadsWhenTheRuntimeHasThem() throws Exception {
+        // Arrange
+        var configuration = new DatabaseExecutorConfiguration();
+        ReflectionTestUtils.setField(configuration, "mode", "virtual");
+        ReflectionTestUtils.setField(configuration, "poolSize", 2);
+        ReflectionTestUtils.setField(configuration, "queueCapacity", 10);
+
+        // Act
+        try (var databaseExecutor = configuration.databaseExecutor(new SimpleMeterRegistry())) {
+            var thread = databaseExecutor.supplyAsync(Thread::currentThread).join();
+
+            // Assert
+            if (Runtime.version().feature() >= 21) {
+                assertEquals(Boolean.TRUE, Thread.class.getMethod("isVirtual").invoke(thread));
+            } else {
+                // Falls back to the bounded platform pool
+                assertTrue(thread.getName().startsWith("database-exec-"));
+            }
+        }
+    }
+
+    @Test
+    void platformModeRunsTasksOnTheBoundedPool() {
+        // Arrange
+        var configuration = new DatabaseExecutorConfiguration();
+        ReflectionTestUtils.setField(configuration, "mode", "platform");
+        ReflectionTestUtils.setField(configuration, "poolSize", 2);
+        ReflectionTestUtils.setField(configuration, "queueCapacity", 10);
+
+        // Act
+        try (var databaseExecutor = configuration.databaseExecutor(new SimpleMeterRegistry())) {
+            var thread = databaseExecutor.supplyAsync(Thread::currentThread).join();
+
+            // Assert
+            assertTrue(thread.getName().startsWith("database-exec-"));
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package br.com.alexmdo.finantialcontrol.configuration;
+
+import br.com.alexmdo.finantialcontrol.domain.account.AccountRepository;
+import br.com.alexmdo.finantialcontrol.domain.category.CategoryRepository;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCardRepository;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
+import br.com.alexmdo.finantialcontrol.domain.user.dto.UserUpdateRequestDto;
+import br.com.alexmdo.finantialcontrol.util.RecordingStatementInspector;
+import br.com.alexmdo.finantialcontrol.util.TestUtil;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * With {@code app.security.stateless-principal} on, requests are authorized from the token
+ * claims alone, and tokens issued before a credential change are rejected by the revocation
+ * list instead of by the user's stored token version.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "app.security.stateless-principal=true",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.alexmdo.finantialcontrol.util.RecordingStatementInspector"
+        })
+@ActiveProfiles("test")
+class StatelessPrincipalTest {
+
+    private static final String PASSWORD_HASH = "$2a$10$m9FiHBdOWEgZpnzylyc8ZOHSN5Lbt9qwG7lIJxpeq4KRJwa1oF/Tq";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CreditCardRepository creditCardRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        creditCardRepository.deleteAll();
+        accountRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+
+        this.user = userRepository.save(new User(null, "John", "Doe", "johndoe@example.com", PASSWORD_HASH));
+
+        RestAssured.port = port;
+    }
+
+    @Test
+    void requestRunsWithoutLoadingTheUser() {
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        RecordingStatementInspector.clear();
+
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + token)
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        assertTrue(RecordingStatementInspector.getStatements().stream().noneMatch(sql -> sql.contains(" from users ")),
+                () -> "The user was loaded: " + RecordingStatementInspector.getStatements());
+    }
+
+    @Test
+    void tokenIssuedBeforePasswordChangeIsRejected() {
+        var oldToken = TestUtil.authenticate("johndoe@example.com", "123456");
+
+        given()
+            .port(port)
+            .contentType("application/json")
+            .header("Authorization", "Bearer " + oldToken)
+            .body(new UserUpdateRequestDto("John", "Doe", "johndoe@example.com", "new-password"))
+        .when()
+            .put("/api/users/me/{id}", user.getId())
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        given()
+            .port(port)
+            .header("Authorization", "Bearer " + oldToken)
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.FORBIDDEN.value());
+    }
+
+}
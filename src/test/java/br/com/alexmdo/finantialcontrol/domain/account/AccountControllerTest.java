@@ -2,6 +2,8 @@ package br.com.alexmdo.finantialcontrol.domain.account;
 
 import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountCreateRequestDto;
 import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountUpdateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.category.CategoryRepository;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCardRepository;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
 import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
 import br.com.alexmdo.finantialcontrol.util.TestUtil;
@@ -35,13 +37,21 @@ public class AccountControllerTest {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private CreditCardRepository creditCardRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
     private User user;
     private Account account;
 
     @BeforeEach
     void setUp() {
-        userRepository.deleteAll();
+        creditCardRepository.deleteAll();
         accountRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
 
         this.user = createNewUser();
         this.account = createNewAccount();
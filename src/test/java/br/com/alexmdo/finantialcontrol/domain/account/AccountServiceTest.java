@@ -1,17 +1,22 @@
 package br.com.alexmdo.finantialcontrol.domain.account;
 
 
+import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountDto;
 import br.com.alexmdo.finantialcontrol.domain.account.exception.AccountNotArchivedException;
 import br.com.alexmdo.finantialcontrol.domain.account.exception.AccountNotFoundException;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
 import br.com.alexmdo.finantialcontrol.domain.user.UserService;
+import br.com.alexmdo.finantialcontrol.infra.DatabaseExecutor;
+import br.com.alexmdo.finantialcontrol.infra.TransactionalAsyncTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -28,6 +33,13 @@ class AccountServiceTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private DatabaseExecutor databaseExecutor = new DatabaseExecutor(Runnable::run);
+
+    @Spy
+    private TransactionalAsyncTemplate transactionalAsyncTemplate =
+            new TransactionalAsyncTemplate(databaseExecutor, Mockito.mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private AccountService accountService;
 
@@ -50,8 +62,7 @@ class AccountServiceTest {
         account.setUser(user);
 
 
-        when(userService.getUserByIdAndUserAsync(account.getUser().getId(), user))
-                .thenReturn(CompletableFuture.completedFuture(user));
+        when(userService.findUserByIdAndUser(account.getUser().getId(), user)).thenReturn(user);
         when(accountRepository.save(account)).thenReturn(account);
 
         // Act
@@ -59,25 +70,50 @@ class AccountServiceTest {
 
         // Assert
         assertDoesNotThrow(futureAccount::join);
-        verify(userService).getUserByIdAndUserAsync(account.getUser().getId(), user);
+        verify(userService).findUserByIdAndUser(account.getUser().getId(), user);
         verify(accountRepository).save(accountCaptor.capture());
         assertEquals(user, accountCaptor.getValue().getUser());
     }
 
     @Test
-    void updateAccountAsync_ValidInput_UpdatesAccount() {
+    void updateAccountForUserAsync_ValidInput_AppliesChangesAndSaves() {
         // Arrange
-        Account updatedAccount = new Account();
-        updatedAccount.setId(1L);
+        User user = new User();
+        user.setEmail("john");
 
-        when(accountRepository.save(updatedAccount)).thenReturn(updatedAccount);
+        Account existingAccount = new Account();
+        existingAccount.setId(1L);
+
+        when(accountRepository.findByIdAndUser(1L, user)).thenReturn(Optional.of(existingAccount));
+        when(accountRepository.save(existingAccount)).thenReturn(existingAccount);
 
         // Act
-        CompletableFuture<Account> futureAccount = accountService.updateAccountAsync(updatedAccount);
+        CompletableFuture<Account> futureAccount = accountService.updateAccountForUserAsync(1L, user, account -> {
+            account.setDescription("Savings");
+            return account;
+        });
 
         // Assert
-        assertEquals(updatedAccount, futureAccount.join());
-        verify(accountRepository).save(updatedAccount);
+        assertEquals(existingAccount, futureAccount.join());
+        verify(accountRepository).save(accountCaptor.capture());
+        assertEquals("Savings", accountCaptor.getValue().getDescription());
+    }
+
+    @Test
+    void updateAccountForUserAsync_AccountNotFound_ThrowsAccountNotFoundException() {
+        // Arrange
+        User user = new User();
+        user.setEmail("john");
+
+        when(accountRepository.findByIdAndUser(1L, user)).thenReturn(Optional.empty());
+
+        // Act
+        CompletableFuture<Account> futureAccount = accountService.updateAccountForUserAsync(1L, user, account -> account);
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, futureAccount::join);
+        assertTrue(exception.getCause() instanceof AccountNotFoundException);
+        verify(accountRepository, never()).save(any());
     }
 
     @Test
@@ -87,18 +123,15 @@ class AccountServiceTest {
         User user = new User();
         user.setEmail("john");
 
-        Account existingAccount = new Account();
-        existingAccount.setId(accountId);
-        existingAccount.setArchived(true);
-
-        when(accountRepository.findByIdAndUser(accountId, user)).thenReturn(Optional.of(existingAccount));
+        when(accountRepository.deleteArchivedByIdAndUser(accountId, user)).thenReturn(1);
 
         // Act
         CompletableFuture<Void> future = accountService.deleteAccountByUserAsync(accountId, user);
 
         // Assert
         assertDoesNotThrow(future::join);
-        verify(accountRepository).delete(existingAccount);
+        verify(accountRepository).deleteArchivedByIdAndUser(accountId, user);
+        verify(accountRepository, never()).existsByIdAndUser(accountId, user);
     }
 
     @Test
@@ -108,11 +141,8 @@ class AccountServiceTest {
         User user = new User();
         user.setEmail("john");
 
-        Account existingAccount = new Account();
-        existingAccount.setId(accountId);
-        existingAccount.setArchived(false);
-
-        when(accountRepository.findByIdAndUser(accountId, user)).thenReturn(Optional.of(existingAccount));
+        when(accountRepository.deleteArchivedByIdAndUser(accountId, user)).thenReturn(0);
+        when(accountRepository.existsByIdAndUser(accountId, user)).thenReturn(true);
 
         // Act
         CompletableFuture<Void> future = accountService.deleteAccountByUserAsync(accountId, user);
@@ -122,11 +152,30 @@ class AccountServiceTest {
         Throwable cause = completionException.getCause();
         assertTrue(cause instanceof AccountNotArchivedException);
         assertEquals("Cannot delete account. Archive it first.", cause.getMessage());
-        verify(accountRepository, never()).delete(existingAccount);
     }
 
     @Test
-    void getAccountByIdAndUserAsync_AccountExists_ReturnsAccount() {
+    void deleteAccountByUserAsync_AccountNotFound_ThrowsAccountNotFoundException() {
+        // Arrange
+        Long accountId = 1L;
+        User user = new User();
+        user.setEmail("john");
+
+        when(accountRepository.deleteArchivedByIdAndUser(accountId, user)).thenReturn(0);
+        when(accountRepository.existsByIdAndUser(accountId, user)).thenReturn(false);
+
+        // Act
+        CompletableFuture<Void> future = accountService.deleteAccountByUserAsync(accountId, user);
+
+        // Assert
+        CompletionException completionException = assertThrows(CompletionException.class, future::join);
+        Throwable cause = completionException.getCause();
+        assertTrue(cause instanceof AccountNotFoundException);
+        assertEquals("Account not found with id: 1", cause.getMessage());
+    }
+
+    @Test
+    void findAccountByIdAndUser_AccountExists_ReturnsAccount() {
         // Arrange
         Long accountId = 1L;
         User user = new User();
@@ -138,15 +187,35 @@ class AccountServiceTest {
         when(accountRepository.findByIdAndUser(accountId, user)).thenReturn(Optional.of(existingAccount));
 
         // Act
-        CompletableFuture<Account> futureAccount = accountService.getAccountByIdAndUserAsync(accountId, user);
+        Account account = accountService.findAccountByIdAndUser(accountId, user);
 
         // Assert
-        assertEquals(existingAccount, futureAccount.join());
+        assertEquals(existingAccount, account);
         verify(accountRepository).findByIdAndUser(accountId, user);
     }
 
     @Test
-    void getAccountByIdAndUserAsync_AccountNotFound_ThrowsAccountNotFoundException() {
+    void getAccountDtoByIdAndUserAsync_AccountExists_ReturnsProjection() {
+        // Arrange
+        Long accountId = 1L;
+        User user = new User();
+        user.setEmail("john");
+
+        AccountDto accountDto = new AccountDto(accountId, BigDecimal.TEN, "Bank", "Checking", AccountType.CHECKING_ACCOUNT, "Blue", "bank", false, 0L);
+
+        when(accountRepository.findDtoByIdAndUser(accountId, user)).thenReturn(Optional.of(accountDto));
+
+        // Act
+        CompletableFuture<AccountDto> futureAccountDto = accountService.getAccountDtoByIdAndUserAsync(accountId, user);
+
+        // Assert
+        assertEquals(accountDto, futureAccountDto.join());
+        verify(accountRepository).findDtoByIdAndUser(accountId, user);
+        verify(accountRepository, never()).findByIdAndUser(accountId, user);
+    }
+
+    @Test
+    void findAccountByIdAndUser_AccountNotFound_ThrowsAccountNotFoundException() {
         // Arrange
         Long accountId = 1L;
         User user = new User();
@@ -155,12 +224,11 @@ class AccountServiceTest {
         when(accountRepository.findByIdAndUser(accountId, user)).thenReturn(Optional.empty());
 
         // Act
-        CompletableFuture<Account> futureAccount = accountService.getAccountByIdAndUserAsync(accountId, user);
+        AccountNotFoundException exception = assertThrows(AccountNotFoundException.class,
+                () -> accountService.findAccountByIdAndUser(accountId, user));
 
         // Assert
-        CompletionException exception = assertThrows(CompletionException.class, futureAccount::join);
-        assertTrue(exception.getCause() instanceof AccountNotFoundException);
-        assertEquals("Account not found with id: 1", exception.getCause().getMessage());
+        assertEquals("Account not found with id: 1", exception.getMessage());
     }
 
     @Test
@@ -170,20 +238,19 @@ class AccountServiceTest {
         User user = new User();
         user.setEmail("john");
 
-        Account existingAccount = new Account();
-        existingAccount.setId(accountId);
+        AccountDto archivedAccount = new AccountDto(accountId, BigDecimal.TEN, "Bank", "Checking", AccountType.CHECKING_ACCOUNT, "Blue", "bank", true, 1L);
 
-        when(accountRepository.findByIdAndUser(accountId, user)).thenReturn(Optional.of(existingAccount));
-        when(accountRepository.save(existingAccount)).thenReturn(existingAccount);
+        when(accountRepository.archiveByIdAndUser(accountId, user)).thenReturn(1);
+        when(accountRepository.findDtoByIdAndUser(accountId, user)).thenReturn(Optional.of(archivedAccount));
 
         // Act
-        CompletableFuture<Account> futureAccount = accountService.archiveAccountForUserAsync(accountId, user);
+        CompletableFuture<AccountDto> futureAccount = accountService.archiveAccountForUserAsync(accountId, user);
 
         // Assert
-        assertDoesNotThrow(futureAccount::join);
-        verify(accountRepository).findByIdAndUser(accountId, user);
-        verify(accountRepository).save(accountCaptor.capture());
-        assertTrue(accountCaptor.getValue().isArchived());
+        assertEquals(archivedAccount, futureAccount.join());
+        verify(accountRepository).archiveByIdAndUser(accountId, user);
+        verify(accountRepository, never()).findByIdAndUser(accountId, user);
+        verify(accountRepository, never()).save(any());
     }
 
     @Test
@@ -193,16 +260,17 @@ class AccountServiceTest {
         User user = new User();
         user.setEmail("john");
 
-        when(accountRepository.findByIdAndUser(accountId, user)).thenReturn(Optional.empty());
+        when(accountRepository.archiveByIdAndUser(accountId, user)).thenReturn(0);
 
         // Act
-        CompletableFuture<Account> futureAccount = accountService.archiveAccountForUserAsync(accountId, user);
+        CompletableFuture<AccountDto> futureAccount = accountService.archiveAccountForUserAsync(accountId, user);
 
         // Assert
         CompletionException completionException = assertThrows(CompletionException.class, futureAccount::join);
         Throwable actualException = completionException.getCause();
         assertTrue(actualException instanceof AccountNotFoundException);
         assertEquals("Account not found with id: 1", actualException.getMessage());
+        verify(accountRepository, never()).findDtoByIdAndUser(accountId, user);
     }
 
     @Test
@@ -212,16 +280,16 @@ class AccountServiceTest {
         user.setEmail("john");
         Pageable pageable = Pageable.unpaged();
 
-        Page<Account> accountPage = mock(Page.class);
+        Page<AccountDto> accountPage = mock(Page.class);
 
-        when(accountRepository.findAllByUser(pageable, user)).thenReturn(accountPage);
+        when(accountRepository.findAllDtoByUser(pageable, user)).thenReturn(accountPage);
 
         // Act
-        CompletableFuture<Page<Account>> futurePage = accountService.getAllAccountsByUserAsync(pageable, user);
+        CompletableFuture<Page<AccountDto>> futurePage = accountService.getAllAccountsByUserAsync(pageable, user);
 
         // Assert
         assertEquals(accountPage, futurePage.join());
-        verify(accountRepository).findAllByUser(pageable, user);
+        verify(accountRepository).findAllDtoByUser(pageable, user);
     }
 
     // Additional tests for fallback methods can be added if required.
@@ -0,0 +1,56 @@
+package br.com.alexmdo.finantialcontrol.domain.auth;
+
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void updatePassword_UnchangedUser_StoresNewHashAtExpectedVersion() {
+        // Arrange
+        User user = new User(1L, "John", "Doe", "john", "old-hash", 0, 3);
+        when(userRepository.updatePasswordByIdAndVersion(1L, 3, "new-hash")).thenReturn(1);
+
+        // Act
+        User updated = (User) authService.updatePassword(user, "new-hash");
+
+        // Assert
+        assertEquals("new-hash", updated.getPassword());
+        assertEquals(4, updated.getVersion());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void updatePassword_UserChangedSinceLogin_KeepsNewerRow() {
+        // Arrange
+        User user = new User(1L, "John", "Doe", "john", "old-hash", 0, 3);
+        when(userRepository.updatePasswordByIdAndVersion(1L, 3, "new-hash")).thenReturn(0);
+
+        // Act
+        User updated = (User) authService.updatePassword(user, "new-hash");
+
+        // Assert
+        assertEquals("old-hash", updated.getPassword());
+        assertEquals(3, updated.getVersion());
+    }
+
+}
@@ -0,0 +1,103 @@
+package br.com.alexmdo.finantialcontrol.domain.auth;
+
+import br.com.alexmdo.finantialcontrol.domain.auth.exception.LoginThrottledException;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoginServiceTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private TokenService tokenService;
+
+    private LoginAttemptThrottle loginAttemptThrottle;
+
+    private LoginService loginService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        loginAttemptThrottle = new LoginAttemptThrottle(2, 10, Duration.ofMinutes(15));
+        loginService = new LoginService(authenticationManager, tokenService, loginAttemptThrottle, new SimpleMeterRegistry(), 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginService.destroy();
+    }
+
+    @Test
+    void loginAsync_ValidCredentials_ReturnsToken() {
+        // Arrange
+        User user = new User(1L, "John", "Doe", "john", "password");
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(tokenService.generateToken(user)).thenReturn("token");
+
+        // Act
+        CompletableFuture<String> futureToken = loginService.loginAsync("john", "password", "127.0.0.1");
+
+        // Assert
+        assertEquals("token", futureToken.join());
+    }
+
+    @Test
+    void loginAsync_TooManyFailures_ThrowsLoginThrottledExceptionWithoutAuthenticating() {
+        // Arrange
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+        assertThrows(CompletionException.class, () -> loginService.loginAsync("john", "wrong", "127.0.0.1").join());
+        assertThrows(CompletionException.class, () -> loginService.loginAsync("john", "wrong", "127.0.0.1").join());
+
+        // Act
+        CompletableFuture<String> futureToken = loginService.loginAsync("john", "wrong", "127.0.0.1");
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, futureToken::join);
+        assertTrue(exception.getCause() instanceof LoginThrottledException);
+        verify(authenticationManager, times(2)).authenticate(any());
+    }
+
+    @Test
+    void loginAsync_FailuresForAnotherEmail_DoNotBlockLogin() {
+        // Arrange
+        loginAttemptThrottle.recordFailure("jane", "10.0.0.1");
+        loginAttemptThrottle.recordFailure("jane", "10.0.0.1");
+
+        // Act & Assert
+        assertTrue(loginAttemptThrottle.isBlocked("jane", "127.0.0.1"));
+        assertFalse(loginAttemptThrottle.isBlocked("john", "127.0.0.1"));
+    }
+
+    @Test
+    void recordFailure_ConcurrentFailures_CountsEveryFailure() {
+        // Arrange
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(1_000, 1_000, Duration.ofMinutes(15));
+
+        // Act
+        IntStream.range(0, 1_000).parallel().forEach(i -> throttle.recordFailure("john", "10.0.0." + (i % 2)));
+
+        // Assert
+        assertTrue(throttle.isBlocked("john", "127.0.0.1"));
+        assertFalse(throttle.isBlocked("jane", "10.0.0.1"));
+    }
+
+}
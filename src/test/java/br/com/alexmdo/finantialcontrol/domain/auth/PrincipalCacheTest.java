@@ -0,0 +1,66 @@
+package br.com.alexmdo.finantialcontrol.domain.auth;
+
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrincipalCacheTest {
+
+    private final PrincipalCache principalCache = new PrincipalCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Test
+    void get_TokenNewerThanCachedUser_ReloadsUser() {
+        // Arrange
+        var loads = new AtomicInteger();
+        var staleUser = user(0);
+        var updatedUser = user(1);
+        principalCache.get("john", 1L, 0, expiresAt(), subject -> Optional.of(staleUser));
+
+        // Act
+        var user = principalCache.get("john", 1L, 1, expiresAt(), subject -> {
+            loads.incrementAndGet();
+            return Optional.of(updatedUser);
+        });
+
+        // Assert
+        assertEquals(Optional.of(updatedUser), user);
+        assertEquals(1, loads.get());
+        assertEquals(Optional.of(updatedUser), principalCache.get("john", 1L, 1, expiresAt(), subject -> Optional.empty()));
+    }
+
+    @Test
+    void get_TokenOlderThanCachedUser_ServesCachedUser() {
+        // Arrange
+        var loads = new AtomicInteger();
+        var currentUser = user(2);
+        principalCache.get("john", 1L, 2, expiresAt(), subject -> Optional.of(currentUser));
+
+        // Act
+        var user = principalCache.get("john", 1L, 1, expiresAt(), subject -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Assert
+        assertEquals(Optional.of(currentUser), user);
+        assertEquals(0, loads.get());
+    }
+
+    private static User user(int tokenVersion) {
+        var user = new User(1L, "John", "Doe", "john", "hash");
+        user.setTokenVersion(tokenVersion);
+        return user;
+    }
+
+    private static Instant expiresAt() {
+        return Instant.now().plus(Duration.ofHours(1));
+    }
+
+}
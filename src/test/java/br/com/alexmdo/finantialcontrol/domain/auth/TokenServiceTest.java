@@ -0,0 +1,100 @@
+package br.com.alexmdo.finantialcontrol.domain.auth;
+
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private final User user = new User(1L, "John", "Doe", "johndoe@example.com", "password");
+
+    @Test
+    void generateToken_SignsWithActiveKeyId() {
+        // Arrange
+        TokenService tokenService = new TokenService(jwtProperties("k2", "secret-2", Map.of()));
+
+        // Act
+        String token = tokenService.generateToken(user);
+
+        // Assert
+        assertEquals("k2", JWT.decode(token).getKeyId());
+        assertEquals("johndoe@example.com", tokenService.getSubject(token));
+        assertEquals(1L, tokenService.verify(token).getClaim("id").asLong());
+    }
+
+    @Test
+    void verify_TokenSignedWithRetiredKey_IsAccepted() {
+        // Arrange
+        String token = new TokenService(jwtProperties("k1", "secret-1", Map.of())).generateToken(user);
+        TokenService rotatedTokenService = new TokenService(jwtProperties("k2", "secret-2", Map.of("k1", "secret-1")));
+
+        // Act
+        String subject = rotatedTokenService.getSubject(token);
+
+        // Assert
+        assertEquals("johndoe@example.com", subject);
+    }
+
+    @Test
+    void verify_UnknownKeyId_ThrowsJWTVerificationException() {
+        // Arrange
+        String token = new TokenService(jwtProperties("k1", "secret-1", Map.of())).generateToken(user);
+        TokenService rotatedTokenService = new TokenService(jwtProperties("k2", "secret-2", Map.of()));
+
+        // Act & Assert
+        JWTVerificationException exception = assertThrows(JWTVerificationException.class, () -> rotatedTokenService.verify(token));
+        assertEquals("Unknown key id: k1", exception.getMessage());
+    }
+
+    @Test
+    void verify_TokenWithoutKeyId_IsVerifiedWithActiveKey() {
+        // Arrange
+        TokenService tokenService = new TokenService(jwtProperties("k1", "secret-1", Map.of()));
+        String token = JWT.create()
+                .withIssuer("Finantial Control")
+                .withSubject("johndoe@example.com")
+                .sign(Algorithm.HMAC256("secret-1"));
+
+        // Act
+        String subject = tokenService.getSubject(token);
+
+        // Assert
+        assertEquals("johndoe@example.com", subject);
+    }
+
+    @Test
+    void toPrincipal_BuildsPrincipalFromClaims() {
+        // Arrange
+        TokenService tokenService = new TokenService(jwtProperties("k1", "secret-1", Map.of()));
+        user.setTokenVersion(3);
+        DecodedJWT decodedJWT = tokenService.verify(tokenService.generateToken(user));
+
+        // Act
+        User principal = tokenService.toPrincipal(decodedJWT);
+
+        // Assert
+        assertEquals(1L, principal.getId());
+        assertEquals("johndoe@example.com", principal.getEmail());
+        assertEquals(3, principal.getTokenVersion());
+        assertEquals(3, tokenService.getTokenVersion(decodedJWT));
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), tokenService.getAuthorities(decodedJWT));
+    }
+
+    private JwtProperties jwtProperties(String keyId, String secret, Map<String, String> retiredKeys) {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setKeyId(keyId);
+        jwtProperties.setSecret(secret);
+        jwtProperties.setRetiredKeys(retiredKeys);
+        return jwtProperties;
+    }
+
+}
@@ -0,0 +1,63 @@
+package br.com.alexmdo.finantialcontrol.domain.category;
+
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryCatalogCacheTest {
+
+    private final CategoryCatalogCache categoryCatalogCache =
+            new CategoryCatalogCache(100, Duration.ofMinutes(30), Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    private final CategoryDto food = new CategoryDto(11L, "Food", "Blue", "piggy-bank", Category.Type.EXPENSE, 0L);
+
+    @Test
+    void get_NotCached_PublishesLoadedCatalog() {
+        // Act
+        var catalog = categoryCatalogCache.get(1L, () -> List.of(food));
+
+        // Assert
+        assertSame(catalog, categoryCatalogCache.getIfPresent(1L));
+        assertEquals(food, catalog.findByName("Food").orElseThrow());
+    }
+
+    @Test
+    void get_InvalidatedDuringLoad_ReturnsCatalogWithoutKeepingIt() throws Exception {
+        // Arrange
+        var loading = new CountDownLatch(1);
+        var invalidated = new CountDownLatch(1);
+
+        // Act
+        var futureCatalog = CompletableFuture.supplyAsync(() -> categoryCatalogCache.get(1L, () -> {
+            loading.countDown();
+            await(invalidated);
+            return List.of(food);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        // The load holds no cache lock, so invalidation does not wait for it
+        categoryCatalogCache.invalidate(1L);
+        invalidated.countDown();
+
+        // Assert
+        assertEquals(food, futureCatalog.get(5, TimeUnit.SECONDS).findById(11L).orElseThrow());
+        assertNull(categoryCatalogCache.getIfPresent(1L));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package br.com.alexmdo.finantialcontrol.domain.category;
+
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CategoryCatalogTest {
+
+    @Test
+    void version_RowReplacedByLowerId_ChangesETag() {
+        // Given
+        // Another instance's sequence block hands out an id below the current highest one
+        var before = CategoryCatalog.of(List.of(category(10L, "Food"), category(60L, "Rent")));
+        var after = CategoryCatalog.of(List.of(category(20L, "Travel"), category(60L, "Rent")));
+
+        // Then
+        assertNotEquals(before.version().eTag(), after.version().eTag());
+    }
+
+    private static CategoryDto category(Long id, String name) {
+        return new CategoryDto(id, name, "Blue", "piggy-bank", Category.Type.EXPENSE, 0L);
+    }
+
+}
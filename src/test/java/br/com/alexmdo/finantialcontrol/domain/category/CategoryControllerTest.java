@@ -1,23 +1,39 @@
 package br.com.alexmdo.finantialcontrol.domain.category;
 
+import br.com.alexmdo.finantialcontrol.domain.account.AccountRepository;
 import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryCreateRequestDto;
 import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryUpdateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCardRepository;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
 import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
+import br.com.alexmdo.finantialcontrol.infra.RequestDeadlineFilter;
 import br.com.alexmdo.finantialcontrol.util.TestUtil;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
 import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
@@ -33,10 +49,24 @@ public class CategoryControllerTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CreditCardRepository creditCardRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
     private User user;
 
     @BeforeEach
     void setUp() {
+        creditCardRepository.deleteAll();
+        accountRepository.deleteAll();
         categoryRepository.deleteAll();
         userRepository.deleteAll();
 
@@ -72,6 +102,100 @@ public class CategoryControllerTest {
             .body("type", equalTo("EXPENSE"));
     }
 
+    @Test
+    public void testCreateCategoriesInBatch() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var createRequestDtos = IntStream.range(0, 120)
+                .mapToObj(i -> new CategoryCreateRequestDto("Category " + i, "Blue", "piggy-bank", Category.Type.EXPENSE))
+                .toList();
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Perform POST request
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .body(createRequestDtos)
+        .when()
+            .post("/api/users/me/categories/batch")
+        .then()
+            .statusCode(HttpStatus.CREATED.value())
+            .body("size()", equalTo(120))
+            .body("[0].name", equalTo("Category 0"))
+            .body("[119].name", equalTo("Category 119"));
+
+        // Inserts go out in JDBC batches and ids come from the sequence in blocks of 50
+        assertEquals(120, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 10);
+    }
+
+    @Test
+    public void testCreateCategoriesInBatchTooLarge() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var createRequestDtos = IntStream.range(0, 501)
+                .mapToObj(i -> new CategoryCreateRequestDto("Category " + i, "Blue", "piggy-bank", Category.Type.EXPENSE))
+                .toList();
+
+        // Perform POST request
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .body(createRequestDtos)
+        .when()
+            .post("/api/users/me/categories/batch")
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    public void testCreateCategoriesInBatchRejectsInvalidItem() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var createRequestDtos = List.of(
+                new CategoryCreateRequestDto("Category 0", "Blue", "piggy-bank", Category.Type.EXPENSE),
+                new CategoryCreateRequestDto(" ", "Blue", "piggy-bank", null));
+
+        // Perform POST request
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .body(createRequestDtos)
+        .when()
+            .post("/api/users/me/categories/batch")
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        assertEquals(0, categoryRepository.count());
+    }
+
+    @Test
+    public void testCreateCategoriesInBatchWithDuplicateName() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var createRequestDtos = List.of(
+                new CategoryCreateRequestDto("Groceries", "Blue", "piggy-bank", Category.Type.EXPENSE),
+                new CategoryCreateRequestDto("Groceries", "Green", "cart", Category.Type.EXPENSE));
+
+        // Perform POST request
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .body(createRequestDtos)
+        .when()
+            .post("/api/users/me/categories/batch")
+        .then()
+            .statusCode(HttpStatus.PRECONDITION_FAILED.value())
+            .body("message", equalTo("One or more categories in the batch already exist."));
+
+        assertEquals(0, categoryRepository.count());
+    }
+
     @Test
     public void testUpdateCategory() {
         // Prepare test data
@@ -142,6 +266,140 @@ public class CategoryControllerTest {
             .body("content[0].type", equalTo(category.getType().toString()));
     }
 
+    @Test
+    public void testGetCategoriesWithinRequestDeadline() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        createNewCategory();
+
+        // Perform GET request
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .header(RequestDeadlineFilter.HEADER, "5S")
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("content.size()", equalTo(1));
+    }
+
+    @Test
+    public void testGetCategoriesAfterRequestDeadline() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+
+        // Perform GET request
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .header(RequestDeadlineFilter.HEADER, "1n")
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.GATEWAY_TIMEOUT.value());
+    }
+
+    @Test
+    public void testGetCategoriesWithMalformedRequestDeadline() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+
+        // Perform GET request
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .header(RequestDeadlineFilter.HEADER, "soon")
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    public void testGetCategoriesShedWhileCircuitOpen() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker("getCategoriesVersionByUser");
+        circuitBreaker.transitionToOpenState();
+
+        try {
+            // Perform GET request
+            given()
+                .port(port)
+                .contentType(ContentType.JSON)
+                .header("Authorization", "Bearer " + token)
+            .when()
+                .get("/api/users/me/categories")
+            .then()
+                .statusCode(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .header(HttpHeaders.RETRY_AFTER, notNullValue());
+        } finally {
+            circuitBreaker.transitionToClosedState();
+        }
+    }
+
+    @Test
+    public void testGetCategoriesWithCursor() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var first = createNewCategory("First");
+        var second = createNewCategory("Second");
+        var third = createNewCategory("Third");
+
+        // Perform GET request for the first page
+        String nextCursor = given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .queryParam("limit", 2)
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("items.size()", equalTo(2))
+            .body("items[0].id", equalTo(first.getId().intValue()))
+            .body("items[1].id", equalTo(second.getId().intValue()))
+            .body("nextCursor", notNullValue())
+            .extract().path("nextCursor");
+
+        // Perform GET request for the page after the cursor
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .queryParam("limit", 2)
+            .queryParam("after", nextCursor)
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("items.size()", equalTo(1))
+            .body("items[0].id", equalTo(third.getId().intValue()))
+            .body("nextCursor", nullValue());
+    }
+
+    @Test
+    public void testGetCategoriesWithInvalidCursor() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+
+        // Perform GET request
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .queryParam("limit", 2)
+            .queryParam("after", "not-a-cursor")
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     @Test
     public void testGetCategoryById() {
         // Prepare test data
@@ -164,14 +422,213 @@ public class CategoryControllerTest {
             .body("type", equalTo(category.getType().toString()));
     }
 
+    @Test
+    public void testGetCategoriesDoesNotFlush() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var category = createNewCategory();
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Perform GET requests
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+        .when()
+            .get("/api/users/me/categories/{id}", category.getId())
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        assertEquals(0, statistics.getFlushCount());
+        assertTrue(statistics.getQueryExecutionCount() > 0);
+    }
+
+    @Test
+    public void testGetCategoryByIdIsServedFromCatalog() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var category = createNewCategory();
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var updateRequestDto = new CategoryUpdateRequestDto("Updated Category", "Green", "piggy-bank", Category.Type.INCOME);
+
+        // Perform GET request that loads the catalog
+        getCategoryById(token, category.getId(), category.getName());
+
+        // Perform the same GET request again
+        statistics.clear();
+        getCategoryById(token, category.getId(), category.getName());
+        assertEquals(0, statistics.getQueryExecutionCount());
+
+        // Perform PUT request, which drops the catalog
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .body(updateRequestDto)
+        .when()
+            .put("/api/users/me/categories/{id}", category.getId())
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        // Perform GET request that sees the update
+        getCategoryById(token, category.getId(), "Updated Category");
+    }
+
+    @Test
+    public void testGetCategoryByIdNotModified() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var category = createNewCategory();
+
+        // Perform GET request
+        String eTag = given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+        .when()
+            .get("/api/users/me/categories/{id}", category.getId())
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .header(HttpHeaders.ETAG, notNullValue())
+            .extract().header(HttpHeaders.ETAG);
+
+        // Perform conditional GET request
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        .when()
+            .get("/api/users/me/categories/{id}", category.getId())
+        .then()
+            .statusCode(HttpStatus.NOT_MODIFIED.value())
+            .header(HttpHeaders.ETAG, equalTo(eTag));
+    }
+
+    @Test
+    public void testGetCategoriesNotModifiedUntilChanged() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        createNewCategory();
+
+        // Perform GET request
+        String eTag = given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .extract().header(HttpHeaders.ETAG);
+
+        // Perform conditional GET request
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        // Perform POST request that changes the listing
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .body(new CategoryCreateRequestDto("Another Category", "Blue", "piggy-bank", Category.Type.EXPENSE))
+        .when()
+            .post("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.CREATED.value());
+
+        // Perform conditional GET request with the old tag
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        .when()
+            .get("/api/users/me/categories")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .header(HttpHeaders.ETAG, not(equalTo(eTag)))
+            .body("content.size()", equalTo(2));
+    }
+
+    @Test
+    public void testUpdateCategoryWithStaleIfMatch() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var category = createNewCategory();
+        var updateRequestDto = new CategoryUpdateRequestDto("Updated Category", "Green", "piggy-bank", Category.Type.INCOME);
+        var currentETag = "\"" + category.getId() + "-" + category.getVersion() + "\"";
+
+        // Perform PUT request with the current tag
+        String newETag = given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .header(HttpHeaders.IF_MATCH, currentETag)
+            .body(updateRequestDto)
+        .when()
+            .put("/api/users/me/categories/{id}", category.getId())
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("version", equalTo((int) category.getVersion() + 1))
+            .extract().header(HttpHeaders.ETAG);
+
+        // Perform PUT request with the tag that is now stale
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+            .header(HttpHeaders.IF_MATCH, currentETag)
+            .body(updateRequestDto)
+        .when()
+            .put("/api/users/me/categories/{id}", category.getId())
+        .then()
+            .statusCode(HttpStatus.PRECONDITION_FAILED.value());
+
+        assertNotEquals(currentETag, newETag);
+    }
+
+    private void getCategoryById(String token, Long id, String expectedName) {
+        given()
+            .port(port)
+            .contentType(ContentType.JSON)
+            .header("Authorization", "Bearer " + token)
+        .when()
+            .get("/api/users/me/categories/{id}", id)
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("name", equalTo(expectedName));
+    }
+
     private User createNewUser() {
         return userRepository.save(new User(null, "John", "Doe", "johndoe@example.com", "$2a$10$m9FiHBdOWEgZpnzylyc8ZOHSN5Lbt9qwG7lIJxpeq4KRJwa1oF/Tq"));
     }
 
     private Category createNewCategory() {
+        return createNewCategory("Category");
+    }
+
+    private Category createNewCategory(String name) {
         return categoryRepository.save(new Category(
                 null,
-                "Category",
+                name,
                 "Blue",
                 "piggy-bank",
                 Category.Type.EXPENSE,
@@ -1,15 +1,30 @@
 package br.com.alexmdo.finantialcontrol.domain.category;
 
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryDto;
+import br.com.alexmdo.finantialcontrol.domain.category.exception.CategoryAlreadyExistsException;
+import br.com.alexmdo.finantialcontrol.domain.category.exception.CategoryBatchTooLargeException;
 import br.com.alexmdo.finantialcontrol.domain.category.exception.CategoryNotFoundException;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
 import br.com.alexmdo.finantialcontrol.domain.user.UserService;
+import br.com.alexmdo.finantialcontrol.infra.DatabaseExecutor;
+import br.com.alexmdo.finantialcontrol.infra.LoadShedding;
+import br.com.alexmdo.finantialcontrol.infra.TransactionalAsyncTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -26,6 +41,20 @@ class CategoryServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private LoadShedding loadShedding;
+
+    @Spy
+    private DatabaseExecutor databaseExecutor = new DatabaseExecutor(Runnable::run);
+
+    @Spy
+    private TransactionalAsyncTemplate transactionalAsyncTemplate =
+            new TransactionalAsyncTemplate(databaseExecutor, Mockito.mock(PlatformTransactionManager.class));
+
+    @Spy
+    private CategoryCatalogCache categoryCatalogCache =
+            new CategoryCatalogCache(100, Duration.ofMinutes(30), Duration.ofMinutes(1), new SimpleMeterRegistry());
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -61,19 +90,57 @@ class CategoryServiceTest {
     }
 
     @Test
-    void updateCategoryAsync_ValidInput_UpdatesCategory() {
+    void createCategoriesAsync_ValidInput_SavesAllInOneCall() {
         // Arrange
-        Category updatedCategory = new Category();
-        updatedCategory.setId(1L);
+        List<Category> categories = List.of(new Category(), new Category());
+
+        when(categoryRepository.saveAll(categories)).thenReturn(categories);
+
+        // Act
+        CompletableFuture<List<Category>> futureCategories = categoryService.createCategoriesAsync(categories);
 
-        when(categoryRepository.save(updatedCategory)).thenReturn(updatedCategory);
+        // Assert
+        assertEquals(categories, futureCategories.join());
+        verify(categoryRepository).saveAll(categories);
+        verify(categoryRepository, never()).save(any());
+    }
+
+    @Test
+    void createCategoriesAsync_TooManyCategories_ThrowsCategoryBatchTooLargeException() {
+        // Arrange
+        List<Category> categories = Collections.nCopies(CategoryService.MAX_BATCH_SIZE + 1, new Category());
 
         // Act
-        CompletableFuture<Category> futureCategory = categoryService.updateCategoryAsync(updatedCategory);
+        CompletableFuture<List<Category>> futureCategories = categoryService.createCategoriesAsync(categories);
 
         // Assert
-        assertEquals(updatedCategory, futureCategory.join());
-        verify(categoryRepository).save(updatedCategory);
+        CompletionException completionException = assertThrows(CompletionException.class, futureCategories::join);
+        assertTrue(completionException.getCause() instanceof CategoryBatchTooLargeException);
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void updateCategoryForUserAsync_ValidInput_AppliesChangesAndSaves() {
+        // Arrange
+        User user = new User();
+        user.setEmail("john");
+
+        Category existingCategory = new Category();
+        existingCategory.setId(1L);
+
+        when(categoryRepository.findByIdAndUser(1L, user)).thenReturn(Optional.of(existingCategory));
+        when(categoryRepository.save(existingCategory)).thenReturn(existingCategory);
+
+        // Act
+        CompletableFuture<Category> futureCategory = categoryService.updateCategoryForUserAsync(1L, user, category -> {
+            category.setName("Groceries");
+            return category;
+        });
+
+        // Assert
+        assertEquals(existingCategory, futureCategory.join());
+        verify(categoryRepository).save(categoryCaptor.capture());
+        assertEquals("Groceries", categoryCaptor.getValue().getName());
     }
 
     @Test
@@ -87,10 +154,10 @@ class CategoryServiceTest {
         existingCategory.setId(categoryId);
         existingCategory.setUser(user);
 
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(existingCategory));
+        when(categoryRepository.findByIdAndUser(categoryId, user)).thenReturn(Optional.of(existingCategory));
 
         // Act
-        CompletableFuture<Void> future = categoryService.deleteCategoryAsync(categoryId);
+        CompletableFuture<Void> future = categoryService.deleteCategoryForUserAsync(categoryId, user);
 
         // Assert
         assertDoesNotThrow(future::join);
@@ -107,69 +174,200 @@ class CategoryServiceTest {
         when(categoryRepository.findByIdAndUser(categoryId, user)).thenReturn(Optional.empty());
 
         // Act
-        CompletableFuture<Void> future = categoryService.deleteCategoryAsync(categoryId);
+        CompletableFuture<Void> future = categoryService.deleteCategoryForUserAsync(categoryId, user);
 
         // Assert
         CompletionException completionException = assertThrows(CompletionException.class, future::join);
         assertTrue(completionException.getCause() instanceof CategoryNotFoundException);
         assertEquals("Category not found given the id", completionException.getCause().getMessage());
+        verify(categoryRepository, never()).delete(any());
     }
 
     @Test
-    void getCategoryByIdAndUserAsync_CategoryExists_ReturnsCategory() {
+    void updateCategoryForUserAsync_CategoryNotFound_ThrowsCategoryNotFoundException() {
         // Arrange
         Long categoryId = 1L;
         User user = new User();
         user.setEmail("john");
 
-        Category existingCategory = new Category();
-        existingCategory.setId(categoryId);
+        when(categoryRepository.findByIdAndUser(categoryId, user)).thenReturn(Optional.empty());
 
-        when(categoryRepository.findByIdAndUser(categoryId, user)).thenReturn(Optional.of(existingCategory));
+        // Act
+        CompletableFuture<Category> futureCategory = categoryService.updateCategoryForUserAsync(categoryId, user, category -> category);
+
+        // Assert
+        CompletionException completionException = assertThrows(CompletionException.class, futureCategory::join);
+        assertTrue(completionException.getCause() instanceof CategoryNotFoundException);
+        assertEquals("Category not found given the id", completionException.getCause().getMessage());
+        verify(categoryRepository, never()).save(any());
+    }
+
+    @Test
+    void getAllCategoriesByUserAsync_ValidInput_ReturnsPageOfCategories() {
+        // Arrange
+        User user = newUser();
+        Pageable pageable = Pageable.ofSize(2);
+        List<CategoryDto> categories = List.of(
+                new CategoryDto(12L, "Rent", "Red", "house", Category.Type.EXPENSE, 0L),
+                new CategoryDto(11L, "Food", "Blue", "piggy-bank", Category.Type.EXPENSE, 0L),
+                new CategoryDto(13L, "Salary", "Green", "wallet", Category.Type.INCOME, 0L));
+
+        when(categoryRepository.findAllDtoByUserOrderById(user)).thenReturn(categories);
 
         // Act
-        CompletableFuture<Category> futureCategory = categoryService.getCategoryByIdAndUserAsync(categoryId, user);
+        CompletableFuture<Page<CategoryDto>> futurePage = categoryService.getAllCategoriesByUserAsync(pageable, user);
 
         // Assert
-        assertEquals(existingCategory, futureCategory.join());
-        verify(categoryRepository).findByIdAndUser(categoryId, user);
+        Page<CategoryDto> page = futurePage.join();
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of(11L, 12L), page.getContent().stream().map(CategoryDto::id).toList());
+        verify(categoryRepository).findAllDtoByUserOrderById(user);
     }
 
     @Test
-    void getCategoryByIdAndUserAsync_CategoryNotFound_ThrowsCategoryNotFoundException() {
+    void getAllCategoriesByUserAsync_SortedPage_QueriesDatabase() {
         // Arrange
-        Long categoryId = 1L;
-        User user = new User();
-        user.setEmail("john");
+        User user = newUser();
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("name"));
 
-        when(categoryRepository.findByIdAndUser(categoryId, user)).thenReturn(Optional.empty());
+        Page<CategoryDto> categoryPage = mock(Page.class);
+
+        when(categoryRepository.findAllDtoByUser(pageable, user)).thenReturn(categoryPage);
 
         // Act
-        CompletableFuture<Category> futureCategory = categoryService.getCategoryByIdAndUserAsync(categoryId, user);
+        CompletableFuture<Page<CategoryDto>> futurePage = categoryService.getAllCategoriesByUserAsync(pageable, user);
+
+        // Assert
+        assertEquals(categoryPage, futurePage.join());
+        verify(categoryRepository).findAllDtoByUser(pageable, user);
+        verify(categoryRepository, never()).findAllDtoByUserOrderById(any());
+    }
+
+    @Test
+    void getAllCategoriesByUserAfterAsync_ValidInput_ReturnsCategoriesAfterId() {
+        // Arrange
+        User user = newUser();
+        CategoryDto food = new CategoryDto(11L, "Food", "Blue", "piggy-bank", Category.Type.EXPENSE, 0L);
+        CategoryDto rent = new CategoryDto(12L, "Rent", "Red", "house", Category.Type.EXPENSE, 0L);
+
+        when(categoryRepository.findAllDtoByUserOrderById(user)).thenReturn(List.of(food, rent));
+
+        // Act
+        CompletableFuture<List<CategoryDto>> futureCategories = categoryService.getAllCategoriesByUserAfterAsync(10L, 1, user);
+
+        // Assert
+        assertEquals(List.of(food), futureCategories.join());
+        assertEquals(List.of(rent), categoryService.getAllCategoriesByUserAfterAsync(11L, 3, user).join());
+        verify(categoryRepository).findAllDtoByUserOrderById(user);
+    }
+
+    @Test
+    void getCategoryDtoByIdAndUserAsync_CatalogCached_DoesNotQueryDatabaseAgain() {
+        // Arrange
+        User user = newUser();
+        CategoryDto food = new CategoryDto(11L, "Food", "Blue", "piggy-bank", Category.Type.EXPENSE, 0L);
+
+        when(categoryRepository.findAllDtoByUserOrderById(user)).thenReturn(List.of(food));
+
+        // Act
+        categoryService.getCategoryDtoByIdAndUserAsync(11L, user).join();
+        CompletableFuture<CategoryDto> futureCategory = categoryService.getCategoryDtoByIdAndUserAsync(11L, user);
+
+        // Assert
+        assertEquals(food, futureCategory.join());
+        verify(categoryRepository, times(1)).findAllDtoByUserOrderById(user);
+    }
+
+    @Test
+    void getCategoryByNameAsync_CatalogCached_DoesNotQueryDatabaseAgain() {
+        // Arrange
+        User user = newUser();
+        CategoryDto food = new CategoryDto(11L, "Food", "Blue", "piggy-bank", Category.Type.EXPENSE, 0L);
+
+        when(categoryRepository.findAllDtoByUserOrderById(user)).thenReturn(List.of(food));
+
+        // Act
+        categoryService.getCategoryDtoByIdAndUserAsync(11L, user).join();
+        CompletableFuture<CategoryDto> futureCategory = categoryService.getCategoryByNameAsync("Food", user);
+
+        // Assert
+        assertEquals(food, futureCategory.join());
+        verify(categoryRepository, times(1)).findAllDtoByUserOrderById(user);
+    }
+
+    @Test
+    void getCategoryByNameAsync_CategoryNotFound_ThrowsCategoryNotFoundException() {
+        // Arrange
+        User user = newUser();
+
+        when(categoryRepository.findAllDtoByUserOrderById(user)).thenReturn(List.of());
+
+        // Act
+        CompletableFuture<CategoryDto> futureCategory = categoryService.getCategoryByNameAsync("Food", user);
 
         // Assert
         CompletionException completionException = assertThrows(CompletionException.class, futureCategory::join);
         assertTrue(completionException.getCause() instanceof CategoryNotFoundException);
-        assertEquals("Category not found given the id", completionException.getCause().getMessage());
     }
 
     @Test
-    void getAllCategoriesByUserAsync_ValidInput_ReturnsPageOfCategories() {
+    void updateCategoryForUserAsync_CatalogCached_RebuildsCatalogOnNextRead() {
         // Arrange
+        User user = newUser();
+        CategoryDto food = new CategoryDto(11L, "Food", "Blue", "piggy-bank", Category.Type.EXPENSE, 0L);
+        CategoryDto groceries = new CategoryDto(11L, "Groceries", "Blue", "piggy-bank", Category.Type.EXPENSE, 0L);
+        Category existingCategory = new Category(11L, "Food", "Blue", "piggy-bank", Category.Type.EXPENSE, user);
+
+        when(categoryRepository.findAllDtoByUserOrderById(user)).thenReturn(List.of(food), List.of(groceries));
+        when(categoryRepository.findByIdAndUser(11L, user)).thenReturn(Optional.of(existingCategory));
+        when(categoryRepository.save(existingCategory)).thenReturn(existingCategory);
+        categoryService.getCategoryDtoByIdAndUserAsync(11L, user).join();
+
+        // Act
+        categoryService.updateCategoryForUserAsync(11L, user, category -> {
+            category.setName("Groceries");
+            return category;
+        }).join();
+        CompletableFuture<CategoryDto> futureCategory = categoryService.getCategoryDtoByIdAndUserAsync(11L, user);
+
+        // Assert
+        assertEquals(groceries, futureCategory.join());
+        verify(categoryCatalogCache).invalidate(user.getId());
+        verify(categoryRepository, times(2)).findAllDtoByUserOrderById(user);
+    }
+
+    private User newUser() {
         User user = new User();
+        user.setId(1L);
         user.setEmail("john");
-        Pageable pageable = Pageable.unpaged();
+        return user;
+    }
 
-        Page<Category> categoryPage = mock(Page.class);
+    @Test
+    void createCategoriesFallback_UniqueViolation_ThrowsCategoryAlreadyExistsException() {
+        // Arrange
+        var throwable = new DataIntegrityViolationException("duplicate",
+                new SQLException("Unique index or primary key violation", "23505"));
+
+        // Act & Assert
+        assertThrows(CategoryAlreadyExistsException.class,
+                () -> categoryService.createCategoriesFallback(List.of(new Category()), throwable));
+        verifyNoInteractions(loadShedding);
+    }
 
-        when(categoryRepository.findAllByUser(pageable, user)).thenReturn(categoryPage);
+    @Test
+    void createCategoriesFallback_OtherIntegrityViolation_ShedsLoad() {
+        // Arrange
+        var throwable = new DataIntegrityViolationException("not null",
+                new SQLException("NULL not allowed for column", "23502"));
+        when(loadShedding.fallback("createCategories", throwable))
+                .thenReturn(CompletableFuture.failedFuture(throwable));
 
         // Act
-        CompletableFuture<Page<Category>> futurePage = categoryService.getAllCategoriesByUserAsync(pageable, user);
+        categoryService.createCategoriesFallback(List.of(new Category()), throwable);
 
         // Assert
-        assertEquals(categoryPage, futurePage.join());
-        verify(categoryRepository).findAllByUser(pageable, user);
+        verify(loadShedding).fallback("createCategories", throwable);
     }
 
     // Additional tests for fallback methods can be added if required.
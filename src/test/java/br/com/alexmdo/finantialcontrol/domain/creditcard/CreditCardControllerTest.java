@@ -3,11 +3,13 @@ package br.com.alexmdo.finantialcontrol.domain.creditcard;
 import br.com.alexmdo.finantialcontrol.domain.account.Account;
 import br.com.alexmdo.finantialcontrol.domain.account.AccountRepository;
 import br.com.alexmdo.finantialcontrol.domain.account.AccountType;
+import br.com.alexmdo.finantialcontrol.domain.category.CategoryRepository;
 import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardCreateRequestDto;
 import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardUpdateRequestDto;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
 import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
 import br.com.alexmdo.finantialcontrol.util.TestUtil;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.restassured.RestAssured;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,12 +17,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
@@ -39,6 +44,12 @@ public class CreditCardControllerTest {
     @Autowired
     private CreditCardRepository creditCardRepository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
     private User user;
     private CreditCard creditCard;
     private Account account;
@@ -47,6 +58,7 @@ public class CreditCardControllerTest {
     void setUp() {
         creditCardRepository.deleteAll();
         accountRepository.deleteAll();
+        categoryRepository.deleteAll();
         userRepository.deleteAll();
 
         this.user = createNewUser();
@@ -105,6 +117,29 @@ public class CreditCardControllerTest {
             .body("archived", equalTo(true));
     }
 
+    @Test
+    public void testArchiveCreditCardShedWhileCircuitOpen() {
+        // Prepare test data
+        var token = TestUtil.authenticate("johndoe@example.com", "123456");
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker("archiveCreditCardForUser");
+        circuitBreaker.transitionToOpenState();
+
+        try {
+            // Perform POST request
+            given()
+                .port(port)
+                .contentType("application/json")
+                .header("Authorization", "Bearer " + token)
+            .when()
+                .post("/api/users/me/credit-cards/{id}/archive", creditCard.getId())
+            .then()
+                .statusCode(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .header(HttpHeaders.RETRY_AFTER, notNullValue());
+        } finally {
+            circuitBreaker.transitionToClosedState();
+        }
+    }
+
     @Test
     public void testDeleteCreditCard() {
         // Prepare test data
@@ -169,9 +204,8 @@ public class CreditCardControllerTest {
     @Test
     public void testGetCreditCardById() {
         // Prepare test data
-        testCreateCreditCard();
         var token = TestUtil.authenticate("johndoe@example.com", "123456");
-        Long creditCardId = 1L;
+        Long creditCardId = creditCard.getId();
 
         // Perform GET request
         given()
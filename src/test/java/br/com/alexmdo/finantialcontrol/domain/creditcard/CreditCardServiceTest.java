@@ -3,14 +3,18 @@ package br.com.alexmdo.finantialcontrol.domain.creditcard;
 import br.com.alexmdo.finantialcontrol.domain.account.Account;
 import br.com.alexmdo.finantialcontrol.domain.account.AccountService;
 import br.com.alexmdo.finantialcontrol.domain.account.AccountType;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardDto;
 import br.com.alexmdo.finantialcontrol.domain.creditcard.exception.CreditCardNotArchivedException;
 import br.com.alexmdo.finantialcontrol.domain.creditcard.exception.CreditCardNotFoundException;
 import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.infra.DatabaseExecutor;
+import br.com.alexmdo.finantialcontrol.infra.TransactionalAsyncTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -28,6 +32,13 @@ class CreditCardServiceTest {
     @Mock
     private AccountService accountService;
 
+    @Spy
+    private DatabaseExecutor databaseExecutor = new DatabaseExecutor(Runnable::run);
+
+    @Spy
+    private TransactionalAsyncTemplate transactionalAsyncTemplate =
+            new TransactionalAsyncTemplate(databaseExecutor, Mockito.mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private CreditCardService creditCardService;
 
@@ -54,8 +65,7 @@ class CreditCardServiceTest {
         // Set the account for the credit card
         creditCard.setAccount(account);
 
-        when(accountService.getAccountByIdAndUserAsync(creditCard.getAccount().getId(), user))
-                .thenReturn(CompletableFuture.completedFuture(account));
+        when(accountService.findAccountByIdAndUser(creditCard.getAccount().getId(), user)).thenReturn(account);
         when(creditCardRepository.save(creditCard)).thenReturn(creditCard);
 
         // Act
@@ -63,7 +73,7 @@ class CreditCardServiceTest {
 
         // Assert
         assertDoesNotThrow(futureCreditCard::join);
-        verify(accountService).getAccountByIdAndUserAsync(creditCard.getAccount().getId(), user);
+        verify(accountService).findAccountByIdAndUser(creditCard.getAccount().getId(), user);
         verify(creditCardRepository).save(creditCardCaptor.capture());
         assertEquals(account, creditCardCaptor.getValue().getAccount());
     }
@@ -76,20 +86,19 @@ class CreditCardServiceTest {
         User user = new User();
         user.setEmail("john");
 
-        CreditCard existingCreditCard = new CreditCard();
-        existingCreditCard.setId(creditCardId);
+        CreditCardDto archivedCreditCard = new CreditCardDto(creditCardId, BigDecimal.TEN, "Card", CreditCardBrand.VISA, 10, 20, 1L, true, 1L);
 
-        when(creditCardRepository.findByIdAndAccountUser(creditCardId, user)).thenReturn(Optional.of(existingCreditCard));
-        when(creditCardRepository.save(existingCreditCard)).thenReturn(existingCreditCard);
+        when(creditCardRepository.archiveByIdAndAccountUser(creditCardId, user)).thenReturn(1);
+        when(creditCardRepository.findDtoByIdAndAccountUser(creditCardId, user)).thenReturn(Optional.of(archivedCreditCard));
 
         // Act
-        CompletableFuture<CreditCard> futureCreditCard = creditCardService.archiveCreditCardForUserAsync(creditCardId, user);
+        CompletableFuture<CreditCardDto> futureCreditCard = creditCardService.archiveCreditCardForUserAsync(creditCardId, user);
 
         // Assert
-        assertDoesNotThrow(futureCreditCard::join);
-        verify(creditCardRepository).findByIdAndAccountUser(creditCardId, user);
-        verify(creditCardRepository).save(creditCardCaptor.capture());
-        assertTrue(creditCardCaptor.getValue().isArchived());
+        assertEquals(archivedCreditCard, futureCreditCard.join());
+        verify(creditCardRepository).archiveByIdAndAccountUser(creditCardId, user);
+        verify(creditCardRepository, never()).findByIdAndAccountUser(creditCardId, user);
+        verify(creditCardRepository, never()).save(any());
     }
 
     @Test
@@ -99,16 +108,17 @@ class CreditCardServiceTest {
         User user = new User();
         user.setEmail("john");
 
-        when(creditCardRepository.findByIdAndAccountUser(creditCardId, user)).thenReturn(Optional.empty());
+        when(creditCardRepository.archiveByIdAndAccountUser(creditCardId, user)).thenReturn(0);
 
         // Act
-        CompletableFuture<CreditCard> futureCreditCard = creditCardService.archiveCreditCardForUserAsync(creditCardId, user);
+        CompletableFuture<CreditCardDto> futureCreditCard = creditCardService.archiveCreditCardForUserAsync(creditCardId, user);
 
         // Assert
         CompletionException completionException = assertThrows(CompletionException.class, futureCreditCard::join);
         Throwable actualException = completionException.getCause();
         assertTrue(actualException instanceof CreditCardNotFoundException);
         assertEquals("Credit card not found with id '1' and user 'john'", actualException.getMessage());
+        verify(creditCardRepository, never()).findDtoByIdAndAccountUser(creditCardId, user);
     }
 
 
@@ -119,18 +129,15 @@ class CreditCardServiceTest {
         User user = new User();
         user.setEmail("john");
 
-        CreditCard existingCreditCard = new CreditCard();
-        existingCreditCard.setId(creditCardId);
-        existingCreditCard.setArchived(true);
-
-        when(creditCardRepository.findByIdAndAccountUser(creditCardId, user)).thenReturn(Optional.of(existingCreditCard));
+        when(creditCardRepository.deleteArchivedByIdAndAccountUser(creditCardId, user)).thenReturn(1);
 
         // Act
         CompletableFuture<Void> future = creditCardService.deleteCreditCardForUserAsync(creditCardId, user);
 
         // Assert
         assertDoesNotThrow(future::join);
-        verify(creditCardRepository).delete(existingCreditCard);
+        verify(creditCardRepository).deleteArchivedByIdAndAccountUser(creditCardId, user);
+        verify(creditCardRepository, never()).existsByIdAndAccountUser(creditCardId, user);
     }
 
     @Test
@@ -140,11 +147,8 @@ class CreditCardServiceTest {
         User user = new User();
         user.setEmail("john");
 
-        CreditCard existingCreditCard = new CreditCard();
-        existingCreditCard.setId(creditCardId);
-        existingCreditCard.setArchived(false);
-
-        when(creditCardRepository.findByIdAndAccountUser(creditCardId, user)).thenReturn(Optional.of(existingCreditCard));
+        when(creditCardRepository.deleteArchivedByIdAndAccountUser(creditCardId, user)).thenReturn(0);
+        when(creditCardRepository.existsByIdAndAccountUser(creditCardId, user)).thenReturn(true);
 
         // Act
         CompletableFuture<Void> future = creditCardService.deleteCreditCardForUserAsync(creditCardId, user);
@@ -154,12 +158,31 @@ class CreditCardServiceTest {
         Throwable cause = completionException.getCause();
         assertTrue(cause instanceof CreditCardNotArchivedException);
         assertEquals("Cannot delete credit card. Archive it first.", cause.getMessage());
-        verify(creditCardRepository, never()).delete(existingCreditCard);
+    }
+
+    @Test
+    void deleteCreditCardForUserAsync_CreditCardNotFound_ThrowsCreditCardNotFoundException() {
+        // Arrange
+        Long creditCardId = 1L;
+        User user = new User();
+        user.setEmail("john");
+
+        when(creditCardRepository.deleteArchivedByIdAndAccountUser(creditCardId, user)).thenReturn(0);
+        when(creditCardRepository.existsByIdAndAccountUser(creditCardId, user)).thenReturn(false);
+
+        // Act
+        CompletableFuture<Void> future = creditCardService.deleteCreditCardForUserAsync(creditCardId, user);
+
+        // Assert
+        CompletionException completionException = assertThrows(CompletionException.class, future::join);
+        Throwable cause = completionException.getCause();
+        assertTrue(cause instanceof CreditCardNotFoundException);
+        assertEquals("Credit card not found with id '1' and user 'john'", cause.getMessage());
     }
 
 
     @Test
-    void getCreditCardByIdAndUserAsync_CreditCardExists_ReturnsCreditCard() {
+    void updateCreditCardForUserAsync_CreditCardExists_AppliesChangesAndSaves() {
         // Arrange
         Long creditCardId = 1L;
         User user = new User();
@@ -169,17 +192,23 @@ class CreditCardServiceTest {
         existingCreditCard.setId(creditCardId);
 
         when(creditCardRepository.findByIdAndAccountUser(creditCardId, user)).thenReturn(Optional.of(existingCreditCard));
+        when(creditCardRepository.save(existingCreditCard)).thenReturn(existingCreditCard);
 
         // Act
-        CompletableFuture<CreditCard> futureCreditCard = creditCardService.getCreditCardByIdAndUserAsync(creditCardId, user);
+        CompletableFuture<CreditCard> futureCreditCard = creditCardService.updateCreditCardForUserAsync(creditCardId, user, creditCard -> {
+            creditCard.setDescription("Gold");
+            return creditCard;
+        });
 
         // Assert
         assertEquals(existingCreditCard, futureCreditCard.join());
         verify(creditCardRepository).findByIdAndAccountUser(creditCardId, user);
+        verify(creditCardRepository).save(creditCardCaptor.capture());
+        assertEquals("Gold", creditCardCaptor.getValue().getDescription());
     }
 
     @Test
-    void getCreditCardByIdAndUserAsync_CreditCardNotFound_ThrowsCreditCardNotFoundException() {
+    void updateCreditCardForUserAsync_CreditCardNotFound_ThrowsCreditCardNotFoundException() {
         // Arrange
         Long creditCardId = 1L;
         User user = new User();
@@ -188,31 +217,16 @@ class CreditCardServiceTest {
         when(creditCardRepository.findByIdAndAccountUser(creditCardId, user)).thenReturn(Optional.empty());
 
         // Act
-        CompletableFuture<CreditCard> futureCreditCard = creditCardService.getCreditCardByIdAndUserAsync(creditCardId, user);
+        CompletableFuture<CreditCard> futureCreditCard = creditCardService.updateCreditCardForUserAsync(creditCardId, user, creditCard -> creditCard);
 
         // Assert
         CompletionException exception = assertThrows(CompletionException.class, futureCreditCard::join);
         assertTrue(exception.getCause() instanceof CreditCardNotFoundException);
         assertEquals("Credit card not found with id '1' and user 'john'", exception.getCause().getMessage());
+        verify(creditCardRepository, never()).save(any());
     }
 
 
-    @Test
-    void updateCreditCardAsync_ValidInput_UpdatesCreditCard() {
-        // Arrange
-        CreditCard updatedCreditCard = new CreditCard();
-        updatedCreditCard.setId(1L);
-
-        when(creditCardRepository.save(updatedCreditCard)).thenReturn(updatedCreditCard);
-
-        // Act
-        CompletableFuture<CreditCard> futureCreditCard = creditCardService.updateCreditCardAsync(updatedCreditCard);
-
-        // Assert
-        assertEquals(updatedCreditCard, futureCreditCard.join());
-        verify(creditCardRepository).save(updatedCreditCard);
-    }
-
     @Test
     void getAllCreditCardsByUserAsync_ValidInput_ReturnsPageOfCreditCards() {
         // Arrange
@@ -220,16 +234,16 @@ class CreditCardServiceTest {
         user.setEmail("john");
         Pageable pageable = Pageable.unpaged();
 
-        Page<CreditCard> creditCardPage = mock(Page.class);
+        Page<CreditCardDto> creditCardPage = mock(Page.class);
 
-        when(creditCardRepository.findAllByAccountUser(pageable, user)).thenReturn(creditCardPage);
+        when(creditCardRepository.findAllDtoByAccountUser(pageable, user)).thenReturn(creditCardPage);
 
         // Act
-        CompletableFuture<Page<CreditCard>> futurePage = creditCardService.getAllCreditCardsByUserAsync(pageable, user);
+        CompletableFuture<Page<CreditCardDto>> futurePage = creditCardService.getAllCreditCardsByUserAsync(pageable, user);
 
         // Assert
         assertEquals(creditCardPage, futurePage.join());
-        verify(creditCardRepository).findAllByAccountUser(pageable, user);
+        verify(creditCardRepository).findAllDtoByAccountUser(pageable, user);
     }
 
     // Additional tests for fallback methods can be added if required.
@@ -1,5 +1,8 @@
 package br.com.alexmdo.finantialcontrol.domain.user;
 
+import br.com.alexmdo.finantialcontrol.domain.account.AccountRepository;
+import br.com.alexmdo.finantialcontrol.domain.category.CategoryRepository;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCardRepository;
 import br.com.alexmdo.finantialcontrol.domain.user.dto.UserCreateRequestDto;
 import br.com.alexmdo.finantialcontrol.domain.user.dto.UserUpdateRequestDto;
 import br.com.alexmdo.finantialcontrol.util.TestUtil;
@@ -27,10 +30,22 @@ public class UserControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CreditCardRepository creditCardRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
     private User user;
 
     @BeforeEach
     void setUp() {
+        creditCardRepository.deleteAll();
+        accountRepository.deleteAll();
+        categoryRepository.deleteAll();
         userRepository.deleteAll();
 
         this.user = createNewUser("John", "Doe", "johndoe@example.com", "$2a$10$m9FiHBdOWEgZpnzylyc8ZOHSN5Lbt9qwG7lIJxpeq4KRJwa1oF/Tq");
@@ -1,17 +1,27 @@
 package br.com.alexmdo.finantialcontrol.domain.user;
 
+import br.com.alexmdo.finantialcontrol.domain.auth.PrincipalCache;
+import br.com.alexmdo.finantialcontrol.domain.auth.TokenRevocations;
 import br.com.alexmdo.finantialcontrol.domain.user.exception.UserAlreadyRegisteredException;
 import br.com.alexmdo.finantialcontrol.domain.user.exception.UserNotFoundException;
+import br.com.alexmdo.finantialcontrol.infra.DatabaseExecutor;
+import br.com.alexmdo.finantialcontrol.infra.TransactionalAsyncTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.UnaryOperator;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -21,6 +31,19 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenRevocations tokenRevocations;
+
+    @Spy
+    private DatabaseExecutor databaseExecutor = new DatabaseExecutor(Runnable::run);
+
+    @Spy
+    private TransactionalAsyncTemplate transactionalAsyncTemplate =
+            new TransactionalAsyncTemplate(databaseExecutor, Mockito.mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private UserService userService;
 
@@ -34,7 +57,6 @@ public class UserServiceTest {
         // Given
         User user = new User(null, "John", "Doe", "john.doe@example.com", "password");
 
-        Mockito.when(userRepository.existsByEmail(anyString())).thenReturn(false);
         Mockito.when(userRepository.save(any())).thenReturn(user);
 
         // When
@@ -55,15 +77,16 @@ public class UserServiceTest {
         // Given
         User newUser = new User(null, "John", "Doe", "john.doe@example.com", "password");
 
-        Mockito.when(userRepository.existsByEmail(anyString())).thenReturn(true);
+        Mockito.when(userRepository.save(any())).thenThrow(new DataIntegrityViolationException("uk_users_email"));
 
         // When
         CompletableFuture<User> futureUser = userService.createUserAsync(newUser);
 
         // Then
         CompletionException completionException = assertThrows(CompletionException.class, futureUser::join);
-        assertTrue(completionException.getCause() instanceof UserAlreadyRegisteredException);
-        assertEquals("Email already exists", completionException.getCause().getMessage());
+        UserAlreadyRegisteredException exception = assertThrows(UserAlreadyRegisteredException.class,
+                () -> userService.createUserFallback(newUser, completionException.getCause()));
+        assertEquals("Email already exists", exception.getMessage());
     }
 
 
@@ -72,14 +95,18 @@ public class UserServiceTest {
         // Given
         Long userId = 1L;
         User existingUser = new User(userId, "John", "Doe", "john.doe@example.com", "password");
-        User updatedUser = new User(userId, "John", "Updated", "john.updated@example.com", "newPassword");
 
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(existingUser));
         Mockito.when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty()); // Assume the updated email doesn't exist
-        Mockito.when(userRepository.save(any())).thenReturn(updatedUser);
+        Mockito.when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
-        CompletableFuture<User> futureUser = userService.updateUserAsync(updatedUser);
+        CompletableFuture<User> futureUser = userService.updateUserAsync(userId, existingUser, user -> {
+            user.setLastName("Updated");
+            user.setEmail("john.updated@example.com");
+            user.setPassword("newPassword");
+            return user;
+        });
 
         // Then
         assertDoesNotThrow(futureUser::join);
@@ -89,6 +116,60 @@ public class UserServiceTest {
         assertEquals("Updated", updated.getLastName());
         assertEquals("john.updated@example.com", updated.getEmail());
         assertEquals("newPassword", updated.getPassword());
+        assertEquals(1, updated.getTokenVersion());
+        Mockito.verify(principalCache).invalidate("john.doe@example.com");
+        Mockito.verify(tokenRevocations).revokeBefore(userId, 1);
+    }
+
+    @Test
+    public void testUpdateUserAsync_InTransaction_RevokesTokensAfterCommit() {
+        // Given
+        Long userId = 1L;
+        User existingUser = new User(userId, "John", "Doe", "john.doe@example.com", "password");
+
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(existingUser));
+        Mockito.when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // When
+            userService.updateUserAsync(userId, existingUser, user -> {
+                user.setPassword("newPassword");
+                return user;
+            }).join();
+
+            // Then
+            Mockito.verifyNoInteractions(principalCache, tokenRevocations);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            Mockito.verify(principalCache).invalidate("john.doe@example.com");
+            Mockito.verify(tokenRevocations).revokeBefore(userId, 1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testUpdateUserAsync_EmailTaken_KeepsTokens() {
+        // Given
+        Long userId = 1L;
+        User existingUser = new User(userId, "John", "Doe", "john.doe@example.com", "password");
+        UnaryOperator<User> changes = user -> {
+            user.setEmail("jane.doe@example.com");
+            return user;
+        };
+
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(existingUser));
+        Mockito.when(userRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+        // When
+        CompletableFuture<User> futureUser = userService.updateUserAsync(userId, existingUser, changes);
+
+        // Then
+        CompletionException completionException = assertThrows(CompletionException.class, futureUser::join);
+        UserAlreadyRegisteredException exception = assertThrows(UserAlreadyRegisteredException.class,
+                () -> userService.updateUserFallback(userId, existingUser, changes, completionException.getCause()));
+        assertEquals("Email already exists", exception.getMessage());
+        Mockito.verifyNoInteractions(principalCache, tokenRevocations);
     }
 
 
@@ -103,7 +184,7 @@ public class UserServiceTest {
         Mockito.when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         // When
-        CompletableFuture<User> futureUpdate = userService.updateUserAsync(user);
+        CompletableFuture<User> futureUpdate = userService.updateUserAsync(userId, user, existing -> existing);
 
         // Then
         CompletionException completionException = assertThrows(CompletionException.class, () -> futureUpdate.join());
@@ -127,6 +208,8 @@ public class UserServiceTest {
         // Then
         assertDoesNotThrow(futureVoid::join);
         Mockito.verify(userRepository, Mockito.times(1)).deleteById(userId);
+        Mockito.verify(principalCache).invalidate("john.doe@example.com");
+        Mockito.verify(tokenRevocations).revokeAll(userId);
     }
 
     @Test
@@ -0,0 +1,336 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import br.com.alexmdo.finantialcontrol.domain.account.Account;
+import br.com.alexmdo.finantialcontrol.domain.account.AccountRepository;
+import br.com.alexmdo.finantialcontrol.domain.account.AccountType;
+import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountCreateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.account.dto.AccountUpdateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.category.Category;
+import br.com.alexmdo.finantialcontrol.domain.category.CategoryRepository;
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryCreateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.category.dto.CategoryUpdateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCard;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCardBrand;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCardRepository;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardCreateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.dto.CreditCardUpdateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
+import br.com.alexmdo.finantialcontrol.domain.user.dto.UserCreateRequestDto;
+import br.com.alexmdo.finantialcontrol.domain.user.dto.UserUpdateRequestDto;
+import br.com.alexmdo.finantialcontrol.util.RecordingStatementInspector;
+import br.com.alexmdo.finantialcontrol.util.TestUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Calls every endpoint once and counts the SQL statements Hibernate prepared while serving
+ * it, so a lazy association or mapper that starts loading rows one by one fails the build.
+ * Each limit is the count the endpoint needs today. Statements that only show up once the
+ * database executor has drained ran after the response was committed, and also fail.
+ * <p>
+ * The principal is loaded once before counting, so the limits cover the endpoint itself,
+ * not the authentication filter.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.alexmdo.finantialcontrol.util.RecordingStatementInspector")
+@ActiveProfiles("test")
+class EndpointStatementCountTest {
+
+    private static final String PASSWORD_HASH = "$2a$10$m9FiHBdOWEgZpnzylyc8ZOHSN5Lbt9qwG7lIJxpeq4KRJwa1oF/Tq";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CreditCardRepository creditCardRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+    private Account account;
+    private CreditCard creditCard;
+    private Category category;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        creditCardRepository.deleteAll();
+        accountRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+
+        RestAssured.port = port;
+
+        user = userRepository.save(new User(null, "John", "Doe", "johndoe@example.com", PASSWORD_HASH));
+        account = accountRepository.save(new Account(null, BigDecimal.valueOf(1000), "Bank", "Savings Account",
+                AccountType.SAVING_ACCOUNT, "Blue", "piggy-bank", false, user));
+        creditCard = creditCardRepository.save(new CreditCard(null, BigDecimal.valueOf(1000), "Credit Card Description",
+                CreditCardBrand.VISA, 10, 25, false, account));
+        category = categoryRepository.save(new Category(null, "Category", "Blue", "piggy-bank", Category.Type.EXPENSE, user));
+
+        token = TestUtil.authenticate("johndoe@example.com", "123456");
+        authenticated().get("/api/users/me/" + user.getId()).then().statusCode(HttpStatus.OK.value());
+    }
+
+    @Test
+    void login() {
+        assertStatementsAtMost(1, () -> given()
+                .contentType(ContentType.JSON)
+                .body("{\"login\":\"johndoe@example.com\",\"password\":\"123456\"}")
+                .post("/api/auth")
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void createUser() {
+        var createRequestDto = new UserCreateRequestDto("Jane", "Doe", "janedoe@example.com", "123456");
+
+        assertStatementsAtMost(1, () -> authenticated().body(createRequestDto).post("/api/users/me")
+                .then().statusCode(HttpStatus.CREATED.value()));
+    }
+
+    @Test
+    void updateUser() {
+        var updateRequestDto = new UserUpdateRequestDto("Johnny", "Doe", "johndoe@example.com", "123456");
+
+        assertStatementsAtMost(3, () -> authenticated().body(updateRequestDto).put("/api/users/me/" + user.getId())
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void deleteUser() {
+        creditCardRepository.deleteAll();
+        accountRepository.deleteAll();
+        categoryRepository.deleteAll();
+
+        assertStatementsAtMost(2, () -> authenticated().delete("/api/users/me/" + user.getId())
+                .then().statusCode(HttpStatus.NO_CONTENT.value()));
+    }
+
+    @Test
+    void getUserById() {
+        assertStatementsAtMost(1, () -> authenticated().get("/api/users/me/" + user.getId())
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void createAccount() {
+        var createRequestDto = new AccountCreateRequestDto(BigDecimal.valueOf(500), "Bank", "Checking Account",
+                AccountType.CHECKING_ACCOUNT, "Red", "wallet", user.getId());
+
+        assertStatementsAtMost(2, () -> authenticated().body(createRequestDto).post("/api/users/me/accounts")
+                .then().statusCode(HttpStatus.CREATED.value()));
+    }
+
+    @Test
+    void updateAccount() {
+        var updateRequestDto = new AccountUpdateRequestDto("Bank", "Updated Account", AccountType.SAVING_ACCOUNT, "Blue", "piggy-bank");
+
+        assertStatementsAtMost(2, () -> authenticated().body(updateRequestDto).put("/api/users/me/accounts/" + account.getId())
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void archiveAccount() {
+        assertStatementsAtMost(2, () -> authenticated().post("/api/users/me/accounts/" + account.getId() + "/archive")
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void deleteAccount() {
+        creditCardRepository.deleteAll();
+        authenticated().post("/api/users/me/accounts/" + account.getId() + "/archive");
+
+        assertStatementsAtMost(1, () -> authenticated().delete("/api/users/me/accounts/" + account.getId())
+                .then().statusCode(HttpStatus.NO_CONTENT.value()));
+    }
+
+    @Test
+    void getAccounts() {
+        assertStatementsAtMost(2, () -> authenticated().get("/api/users/me/accounts")
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void getAccountsAfter() {
+        assertStatementsAtMost(2, () -> authenticated().get("/api/users/me/accounts?limit=10")
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void getAccountById() {
+        assertStatementsAtMost(1, () -> authenticated().get("/api/users/me/accounts/" + account.getId())
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void createCreditCard() {
+        var createRequestDto = new CreditCardCreateRequestDto(BigDecimal.valueOf(2000), "Another Card",
+                CreditCardBrand.MASTERCARD, 5, 15, account.getId());
+
+        assertStatementsAtMost(2, () -> authenticated().body(createRequestDto).post("/api/users/me/credit-cards")
+                .then().statusCode(HttpStatus.CREATED.value()));
+    }
+
+    @Test
+    void updateCreditCard() {
+        var updateRequestDto = new CreditCardUpdateRequestDto("Updated Card", account.getId());
+
+        assertStatementsAtMost(2, () -> authenticated().body(updateRequestDto).put("/api/users/me/credit-cards/" + creditCard.getId())
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void archiveCreditCard() {
+        assertStatementsAtMost(2, () -> authenticated().post("/api/users/me/credit-cards/" + creditCard.getId() + "/archive")
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void deleteCreditCard() {
+        authenticated().post("/api/users/me/credit-cards/" + creditCard.getId() + "/archive");
+
+        assertStatementsAtMost(1, () -> authenticated().delete("/api/users/me/credit-cards/" + creditCard.getId())
+                .then().statusCode(HttpStatus.NO_CONTENT.value()));
+    }
+
+    @Test
+    void getCreditCards() {
+        assertStatementsAtMost(2, () -> authenticated().get("/api/users/me/credit-cards")
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void getCreditCardsAfter() {
+        assertStatementsAtMost(2, () -> authenticated().get("/api/users/me/credit-cards?limit=10")
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void getCreditCardById() {
+        assertStatementsAtMost(1, () -> authenticated().get("/api/users/me/credit-cards/" + creditCard.getId())
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void createCategory() {
+        var createRequestDto = new CategoryCreateRequestDto("Another Category", "Red", "tag", Category.Type.INCOME);
+
+        assertStatementsAtMost(1, () -> authenticated().body(createRequestDto).post("/api/users/me/categories")
+                .then().statusCode(HttpStatus.CREATED.value()));
+    }
+
+    @Test
+    void createCategoriesInBatch() {
+        var createRequestDtos = List.of(
+                new CategoryCreateRequestDto("First", "Red", "tag", Category.Type.INCOME),
+                new CategoryCreateRequestDto("Second", "Green", "tag", Category.Type.EXPENSE),
+                new CategoryCreateRequestDto("Third", "Blue", "tag", Category.Type.EXPENSE));
+
+        assertStatementsAtMost(1, () -> authenticated().body(createRequestDtos).post("/api/users/me/categories/batch")
+                .then().statusCode(HttpStatus.CREATED.value()));
+    }
+
+    @Test
+    void updateCategory() {
+        var updateRequestDto = new CategoryUpdateRequestDto("Updated Category", "Blue", "piggy-bank", Category.Type.EXPENSE);
+
+        assertStatementsAtMost(2, () -> authenticated().body(updateRequestDto).put("/api/users/me/categories/" + category.getId())
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void deleteCategory() {
+        assertStatementsAtMost(2, () -> authenticated().delete("/api/users/me/categories/" + category.getId())
+                .then().statusCode(HttpStatus.NO_CONTENT.value()));
+    }
+
+    @Test
+    void getCategories() {
+        assertStatementsAtMost(1, () -> authenticated().get("/api/users/me/categories")
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void getCategoriesAfter() {
+        assertStatementsAtMost(1, () -> authenticated().get("/api/users/me/categories?limit=10")
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    @Test
+    void getCategoryById() {
+        assertStatementsAtMost(1, () -> authenticated().get("/api/users/me/categories/" + category.getId())
+                .then().statusCode(HttpStatus.OK.value()));
+    }
+
+    private RequestSpecification authenticated() {
+        return given()
+                .contentType(ContentType.JSON)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private void assertStatementsAtMost(int max, Runnable request) {
+        awaitDatabaseExecutorIdle();
+        RecordingStatementInspector.clear();
+
+        request.run();
+        var served = RecordingStatementInspector.getStatements();
+
+        awaitDatabaseExecutorIdle();
+        var afterCommit = RecordingStatementInspector.getStatements();
+
+        assertTrue(served.size() <= max, () -> describe("Expected at most " + max + " statements but the endpoint ran " + served.size(), served));
+        assertEquals(served.size(), afterCommit.size(), () -> describe("Statements ran after the response was committed",
+                afterCommit.subList(served.size(), afterCommit.size())));
+    }
+
+    private void awaitDatabaseExecutorIdle() {
+        var deadline = System.nanoTime() + 5_000_000_000L;
+        while (gauge("executor.active") > 0 || gauge("executor.queued") > 0) {
+            if (System.nanoTime() > deadline) {
+                fail("Database executor did not drain");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("name", "database").gauge().value();
+    }
+
+    private static String describe(String message, List<String> statements) {
+        var description = new StringBuilder(message).append(':');
+        statements.forEach(statement -> description.append(System.lineSeparator()).append("  ").append(statement));
+        return description.toString();
+    }
+
+}
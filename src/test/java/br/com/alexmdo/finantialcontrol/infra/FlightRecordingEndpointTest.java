@@ -0,0 +1,120 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import br.com.alexmdo.finantialcontrol.domain.auth.JwtProperties;
+import br.com.alexmdo.finantialcontrol.domain.auth.TokenService;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecordingEndpointTest {
+
+    private final FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        endpoint.stop();
+    }
+
+    @Test
+    void recordingHoldsTheApplicationEvents() throws Exception {
+        // Arrange
+        var jwtProperties = new JwtProperties();
+        jwtProperties.setKeyId("k1");
+        jwtProperties.setSecret("secret-1");
+        var tokenService = new TokenService(jwtProperties);
+        var token = tokenService.generateToken(new User(130L, "John", "Doe", "johndoe@example.com", "password"));
+
+        // Act
+        assertEquals("RUNNING", endpoint.start(null).get("state"));
+        tokenService.verify(token);
+        assertThrows(JWTVerificationException.class, () -> tokenService.verify(token + "x"));
+        var events = dump();
+
+        // Assert
+        var verifications = events.stream()
+                .filter(event -> event.getEventType().getName().equals("finantialcontrol.TokenVerification"))
+                .map(event -> event.getString("outcome") + "/" + event.getInt("userBucket"))
+                .toList();
+        assertEquals(List.of("success/2", "invalid/2"), verifications);
+    }
+
+    @Test
+    void recordingLeavesOutEnvironmentPropertiesAndJvmArguments() throws Exception {
+        // Act
+        endpoint.start(null);
+        var eventTypes = dump().stream()
+                .map(event -> event.getEventType().getName())
+                .collect(Collectors.toSet());
+
+        // Assert
+        assertTrue(eventTypes.contains("jdk.ActiveSetting"));
+        assertFalse(eventTypes.contains("jdk.InitialEnvironmentVariable"));
+        assertFalse(eventTypes.contains("jdk.InitialSystemProperty"));
+        assertFalse(eventTypes.contains("jdk.JVMInformation"));
+    }
+
+    @Test
+    void startReplacesARecordingWhoseDurationElapsed() throws Exception {
+        // Arrange
+        endpoint.start(Duration.ofMillis(1));
+        var first = finantialControlRecording();
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (first.getState() == RecordingState.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(RecordingState.STOPPED, first.getState());
+
+        // Act
+        var status = endpoint.start(null);
+
+        // Assert
+        assertEquals("RUNNING", status.get("state"));
+        assertEquals(RecordingState.CLOSED, first.getState());
+        assertNotEquals(first.getId(), finantialControlRecording().getId());
+    }
+
+    @Test
+    void dumpWithoutRecordingIsNotFound() throws Exception {
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.dump().getStatus());
+        assertEquals(Map.of("state", "STOPPED"), endpoint.stop());
+    }
+
+    private static Recording finantialControlRecording() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getName().equals("finantialcontrol")
+                        && recording.getState() != RecordingState.CLOSED)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<RecordedEvent> dump() throws Exception {
+        var file = Files.createTempFile("recording-", ".jfr");
+        try (var in = endpoint.dump().getBody().getInputStream()) {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoadSheddingTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private LoadShedding loadShedding;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .waitDurationInOpenState(Duration.ofMillis(4500))
+                .build());
+        loadShedding = new LoadShedding(circuitBreakerRegistry, meterRegistry);
+    }
+
+    @Test
+    void openCircuitIsShedWithTheWaitInOpenState() {
+        // Arrange
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker("getAllAccountsByUser");
+        circuitBreaker.transitionToOpenState();
+        var notPermitted = CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+
+        // Act
+        var exception = assertThrows(ServiceUnavailableException.class,
+                () -> loadShedding.fallback("getAllAccountsByUser", notPermitted));
+
+        // Assert
+        assertEquals(5, exception.getRetryAfterSeconds());
+        assertEquals(1, shed("getAllAccountsByUser", "circuit_open"));
+    }
+
+    @Test
+    void fullExecutorQueueIsShed() {
+        // Act
+        var exception = assertThrows(ServiceUnavailableException.class,
+                () -> loadShedding.fallback("createAccount", new RejectedExecutionException("queue full")));
+
+        // Assert
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1, shed("createAccount", "bulkhead_full"));
+    }
+
+    @Test
+    void timeLimiterTimeoutBecomesDeadlineExceeded() {
+        assertThrows(DeadlineExceededException.class,
+                () -> loadShedding.fallback("updateAccount", new TimeoutException()));
+    }
+
+    @Test
+    void businessExceptionsAreRethrown() {
+        var notFound = new BusinessException("not found");
+
+        assertSame(notFound, assertThrows(BusinessException.class, () -> loadShedding.fallback("getAccountDtoByIdAndUser", notFound)));
+    }
+
+    @Test
+    void otherFailuresArePassedOn() {
+        // Arrange
+        var failure = new IllegalStateException("connection refused");
+
+        // Act
+        var future = loadShedding.fallback("getAccountDtoByIdAndUser", failure);
+
+        // Assert
+        var exception = assertThrows(CompletionException.class, future::join);
+        assertSame(failure, exception.getCause());
+    }
+
+    private double shed(String operation, String reason) {
+        return meterRegistry.get(LoadShedding.METRIC).tag("operation", operation).tag("reason", reason).counter().count();
+    }
+
+}
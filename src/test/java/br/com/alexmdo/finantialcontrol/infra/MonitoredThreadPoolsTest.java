@@ -0,0 +1,73 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonitoredThreadPoolsTest {
+
+    @Test
+    void fullQueueRejectsTasksAndCountsThem() throws Exception {
+        // Arrange
+        var meterRegistry = new SimpleMeterRegistry();
+        var executor = MonitoredThreadPools.bounded("test", 1, 1, meterRegistry);
+        var running = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                running.countDown();
+                await(release);
+            });
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            executor.execute(() -> { });
+
+            // Act & Assert
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+            assertEquals(1.0, meterRegistry.get("executor.rejected").tag("name", "test").counter().count());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void databaseExecutorSurfacesRejectionToTheCaller() throws Exception {
+        // Arrange
+        var meterRegistry = new SimpleMeterRegistry();
+        var executor = MonitoredThreadPools.bounded("database", 1, 1, meterRegistry);
+        var databaseExecutor = new DatabaseExecutor(executor);
+        var running = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        try {
+            databaseExecutor.runAsync(() -> {
+                running.countDown();
+                await(release);
+            });
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            databaseExecutor.runAsync(() -> { });
+
+            // Act & Assert
+            assertThrows(RejectedExecutionException.class, () -> databaseExecutor.supplyAsync(() -> "rejected"));
+            assertEquals(1.0, meterRegistry.get("executor.rejected").tag("name", "database").counter().count());
+        } finally {
+            release.countDown();
+            databaseExecutor.close();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
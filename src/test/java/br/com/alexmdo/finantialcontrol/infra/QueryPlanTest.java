@@ -0,0 +1,154 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import br.com.alexmdo.finantialcontrol.domain.account.AccountRepository;
+import br.com.alexmdo.finantialcontrol.domain.category.CategoryRepository;
+import br.com.alexmdo.finantialcontrol.domain.creditcard.CreditCardRepository;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import br.com.alexmdo.finantialcontrol.domain.user.UserRepository;
+import br.com.alexmdo.finantialcontrol.util.RecordingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the repository queries and conditional writes used by the endpoints, then asks H2 for
+ * the plan of each statement Hibernate generated. A plan that falls back to a table scan
+ * or on an index H2 only created implicitly for a foreign key, means a migration is missing
+ * the index for that query shape.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.alexmdo.finantialcontrol.util.RecordingStatementInspector")
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    private static final Pattern FOREIGN_KEY_INDEX = Pattern.compile("PUBLIC\\.(FK_\\w+_INDEX_\\w+): (\\w+) =");
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CreditCardRepository creditCardRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final User user = new User(1L, null, null, null, null);
+
+    @BeforeEach
+    void setUp() {
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void accountQueriesUseIndexes() {
+        accountRepository.findByIdAndUser(1L, user);
+        accountRepository.findDtoByIdAndUser(1L, user);
+        accountRepository.findAllDtoByUser(PageRequest.of(1, 10), user);
+        accountRepository.findAllDtoByUserAndIdGreaterThan(user, 1L, PageRequest.ofSize(10));
+        accountRepository.findCollectionVersionByUser(user);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void creditCardQueriesUseIndexes() {
+        creditCardRepository.findByIdAndAccountUser(1L, user);
+        creditCardRepository.findDtoByIdAndAccountUser(1L, user);
+        creditCardRepository.findAllDtoByAccountUser(PageRequest.of(1, 10), user);
+        creditCardRepository.findAllDtoByAccountUserAndIdGreaterThan(user, 1L, PageRequest.ofSize(10));
+        creditCardRepository.findCollectionVersionByAccountUser(user);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    @Transactional
+    void accountConditionalWritesUseIndexes() {
+        accountRepository.existsByIdAndUser(1L, user);
+        accountRepository.archiveByIdAndUser(1L, user);
+        accountRepository.deleteArchivedByIdAndUser(1L, user);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    @Transactional
+    void creditCardConditionalWritesUseIndexes() {
+        creditCardRepository.existsByIdAndAccountUser(1L, user);
+        creditCardRepository.archiveByIdAndAccountUser(1L, user);
+        creditCardRepository.deleteArchivedByIdAndAccountUser(1L, user);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void categoryQueriesUseIndexes() {
+        categoryRepository.findByIdAndUser(1L, user);
+        categoryRepository.findAllDtoByUser(PageRequest.of(1, 10), user);
+        categoryRepository.findAllDtoByUserOrderById(user);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void userQueriesUseIndexes() {
+        userRepository.findByEmail("johndoe@example.com");
+
+        assertNoTableScans();
+    }
+
+    private void assertNoTableScans() {
+        var statements = RecordingStatementInspector.getStatements();
+        assertFalse(statements.isEmpty());
+        for (var sql : statements) {
+            var plan = explain(sql);
+            assertFalse(plan.contains(".tableScan"), () -> "Table scan in plan for: " + sql + "\n" + plan);
+            // H2 silently indexes foreign keys but Postgres does not, so a migration must declare one as well
+            var foreignKeyIndex = FOREIGN_KEY_INDEX.matcher(plan);
+            while (foreignKeyIndex.find()) {
+                var indexName = foreignKeyIndex.group(1);
+                var column = foreignKeyIndex.group(2);
+                assertTrue(hasDeclaredIndexStartingWith(indexName, column),
+                        () -> "No migration index on " + column + " for: " + sql + "\n" + plan);
+            }
+        }
+    }
+
+    private boolean hasDeclaredIndexStartingWith(String foreignKeyIndexName, String column) {
+        var count = jdbcTemplate.queryForObject("""
+                select count(*) from information_schema.index_columns declared
+                join information_schema.indexes implicit on implicit.table_name = declared.table_name
+                where implicit.index_name = ?
+                  and declared.index_name like 'IDX\\_%'
+                  and declared.column_name = ?
+                  and declared.ordinal_position = 1
+                """, Integer.class, foreignKeyIndexName, column);
+        return count != null && count > 0;
+    }
+
+    private String explain(String sql) {
+        // H2 converts each bound value to the type of the column it is compared with
+        var parameters = Collections.nCopies((int) sql.chars().filter(c -> c == '?').count(), "1").toArray();
+        List<String> plan = jdbcTemplate.queryForList("explain " + sql, String.class, parameters);
+        assertTrue(plan.size() == 1);
+        return plan.get(0);
+    }
+
+}
@@ -0,0 +1,132 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes transactions between two in-memory H2 databases, each holding a single row that
+ * names it, and checks which one answered.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        var routingDataSource = new ReplicaRoutingDataSource(
+                node("primary"), List.of(node("replica")), Duration.ofSeconds(2), meterRegistry, nanos::get);
+        var dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        var routed = routedConnections("replica-1");
+
+        assertEquals("replica", readOnlyTransactionTemplate.execute(status -> currentNode()));
+        assertEquals(routed + 1, routedConnections("replica-1"));
+    }
+
+    @Test
+    void writeTransactionsGoToThePrimary() {
+        var routed = routedConnections("primary");
+
+        assertEquals("primary", transactionTemplate.execute(status -> currentNode()));
+        assertEquals(routed + 1, routedConnections("primary"));
+    }
+
+    @Test
+    void writerReadsFromThePrimaryUntilTheLagToleranceElapses() {
+        authenticateAs(1L);
+        transactionTemplate.executeWithoutResult(status -> currentNode());
+
+        assertEquals("primary", readOnlyTransactionTemplate.execute(status -> currentNode()));
+
+        nanos.addAndGet(Duration.ofSeconds(3).toNanos());
+        assertEquals("replica", readOnlyTransactionTemplate.execute(status -> currentNode()));
+    }
+
+    @Test
+    void otherUsersKeepReadingFromTheReplica() {
+        authenticateAs(1L);
+        transactionTemplate.executeWithoutResult(status -> currentNode());
+
+        authenticateAs(2L);
+        assertEquals("replica", readOnlyTransactionTemplate.execute(status -> currentNode()));
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinTheUser() {
+        authenticateAs(1L);
+        transactionTemplate.executeWithoutResult(status -> {
+            currentNode();
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnlyTransactionTemplate.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readOnlyTransactionsInsideOnPrimaryGoToThePrimary() {
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(
+                () -> readOnlyTransactionTemplate.execute(status -> currentNode())));
+
+        assertEquals("replica", readOnlyTransactionTemplate.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private double routedConnections(String pool) {
+        return meterRegistry.get("datasource.routing").tag("pool", pool).counter().count();
+    }
+
+    private static void authenticateAs(Long userId) {
+        var user = new User(userId, null, null, "user" + userId + "@example.com", null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private static DataSource node(String name) {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(32))");
+        jdbcTemplate.update("delete from node");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,52 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestDeadlineFilterTest {
+
+    @Test
+    void parsesEveryGrpcTimeoutUnit() {
+        assertEquals(Duration.ofHours(1), RequestDeadlineFilter.parseTimeout("1H"));
+        assertEquals(Duration.ofMinutes(2), RequestDeadlineFilter.parseTimeout("2M"));
+        assertEquals(Duration.ofSeconds(3), RequestDeadlineFilter.parseTimeout("3S"));
+        assertEquals(Duration.ofMillis(1500), RequestDeadlineFilter.parseTimeout("1500m"));
+        assertEquals(Duration.ofNanos(250_000), RequestDeadlineFilter.parseTimeout("250u"));
+        assertEquals(Duration.ofNanos(42), RequestDeadlineFilter.parseTimeout("42n"));
+    }
+
+    @Test
+    void rejectsMalformedValues() {
+        assertNull(RequestDeadlineFilter.parseTimeout(""));
+        assertNull(RequestDeadlineFilter.parseTimeout("1500"));
+        assertNull(RequestDeadlineFilter.parseTimeout("-1S"));
+        assertNull(RequestDeadlineFilter.parseTimeout("1.5S"));
+        assertNull(RequestDeadlineFilter.parseTimeout("123456789m"));
+        assertNull(RequestDeadlineFilter.parseTimeout("10s"));
+    }
+
+    @Test
+    void capsBudgetsAboveTheMaximum() throws Exception {
+        var filter = new RequestDeadlineFilter(Duration.ofMinutes(5));
+        var request = new MockHttpServletRequest("GET", "/api/users/me/accounts");
+        request.addHeader(RequestDeadlineFilter.HEADER, "99999999H");
+        var response = new MockHttpServletResponse();
+        var remaining = new AtomicReference<Duration>();
+
+        filter.doFilter(request, response, (req, res) -> remaining.set(Deadline.current().remaining()));
+
+        assertEquals(200, response.getStatus());
+        assertTrue(remaining.get().compareTo(Duration.ofMinutes(5)) <= 0);
+        assertTrue(remaining.get().compareTo(Duration.ofMinutes(4)) > 0);
+    }
+
+}
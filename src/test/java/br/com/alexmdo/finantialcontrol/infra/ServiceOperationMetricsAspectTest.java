@@ -0,0 +1,101 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import br.com.alexmdo.finantialcontrol.domain.category.CategoryService;
+import br.com.alexmdo.finantialcontrol.domain.category.exception.CategoryNotFoundException;
+import br.com.alexmdo.finantialcontrol.domain.user.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ServiceOperationMetricsAspectTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void recordsEachOperationWithItsOutcome() {
+        // Arrange
+        var user = new User(-1L, null, null, "nobody@example.com", null);
+        var success = count("getCategoriesVersionByUser", "success");
+        var businessError = count("getCategoryDtoByIdAndUser", "business_error");
+
+        // Act
+        categoryService.getCategoriesVersionByUserAsync(user).join();
+        assertThrows(CompletionException.class, () -> categoryService.getCategoryDtoByIdAndUserAsync(-1L, user).join());
+
+        // Assert
+        assertEquals(success + 1, count("getCategoriesVersionByUser", "success"));
+        assertEquals(businessError + 1, count("getCategoryDtoByIdAndUser", "business_error"));
+    }
+
+    @Test
+    void emitsFlightRecorderEventsForTheOperationAndItsRepositoryCalls() throws Exception {
+        // Arrange
+        var user = new User(-66L, null, null, "nobody@example.com", null);
+        List<RecordedEvent> events;
+
+        // Act
+        try (var recording = new Recording()) {
+            recording.enable(ServiceOperationEvent.class);
+            recording.enable(RepositoryCallEvent.class);
+            recording.start();
+            categoryService.getCategoriesVersionByUserAsync(user).join();
+            recording.stop();
+
+            var file = Files.createTempFile("recording-", ".jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+            Files.delete(file);
+        }
+
+        // Assert
+        var operations = events.stream()
+                .filter(event -> event.getInt("userBucket") == FlightRecorderEvents.userBucket(-66L))
+                .map(event -> event.getString("operation") + "/" + event.getString("outcome"))
+                .toList();
+        assertTrue(operations.contains("getCategoriesVersionByUser/success"), operations::toString);
+        assertTrue(operations.stream().anyMatch(operation -> operation.startsWith("CategoryRepository.")),
+                operations::toString);
+    }
+
+    @Test
+    void classifiesFailures() {
+        assertEquals("success", ServiceOperationMetricsAspect.outcome(null));
+        assertEquals("business_error", ServiceOperationMetricsAspect.outcome(
+                new CompletionException(new CategoryNotFoundException("Category not found"))));
+        assertEquals("timeout", ServiceOperationMetricsAspect.outcome(new TimeoutException()));
+        assertEquals("timeout", ServiceOperationMetricsAspect.outcome(new DeadlineExceededException("Deadline passed")));
+        assertEquals("fallback", ServiceOperationMetricsAspect.outcome(
+                new ServiceUnavailableException("Unavailable", Duration.ofSeconds(1))));
+        assertEquals("error", ServiceOperationMetricsAspect.outcome(new IllegalStateException()));
+    }
+
+    private long count(String operation, String outcome) {
+        var timer = meterRegistry.find(ServiceOperationMetricsAspect.METRIC)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+}
@@ -0,0 +1,108 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLogTest {
+
+    @Test
+    void fingerprintRedactsLiteralsAndCollapsesWhitespace() {
+        // Act
+        var fingerprint = SlowQueryLog.fingerprint("""
+                select a1_0.id, a1_0.name
+                from account a1_0
+                where a1_0.user_id = 42 and a1_0.name = 'O''Brien savings' and a1_0.id in (1, 2, 3)
+                """);
+
+        // Assert
+        assertEquals("select a1_0.id, a1_0.name from account a1_0 "
+                + "where a1_0.user_id = ? and a1_0.name = ? and a1_0.id in (?)", fingerprint);
+    }
+
+    @Test
+    void preparedStatementsWithDifferentInListsShareAFingerprint() {
+        // Act
+        var two = SlowQueryLog.fingerprint("select * from category where id in (?, ?)");
+        var three = SlowQueryLog.fingerprint("select * from category where id in (?,?,?)");
+
+        // Assert
+        assertEquals(two, three);
+    }
+
+    @Test
+    void statisticsAreKeptPerFingerprintAndSortedByTotalTime() {
+        // Arrange
+        var slowQueryLog = new SlowQueryLog(Duration.ofMillis(200), 0, 500, 2_000);
+
+        // Act
+        slowQueryLog.record("select * from account where id = 1", TimeUnit.MILLISECONDS.toNanos(10));
+        slowQueryLog.record("select * from account where id = 2", TimeUnit.MILLISECONDS.toNanos(30));
+        slowQueryLog.record("delete from category where id = 3", TimeUnit.MILLISECONDS.toNanos(250));
+
+        // Assert
+        var statistics = slowQueryLog.statistics();
+        assertEquals(2, statistics.size());
+        assertEquals("delete from category where id = ?", statistics.get(0).fingerprint());
+        assertEquals("select * from account where id = ?", statistics.get(1).fingerprint());
+        assertEquals(2, statistics.get(1).count());
+        assertEquals(40, statistics.get(1).totalMillis(), 0.001);
+    }
+
+    @Test
+    void fingerprintsBeyondTheLimitAreFoldedIntoOther() {
+        // Arrange
+        var slowQueryLog = new SlowQueryLog(Duration.ofMillis(200), 0, 1, 2_000);
+
+        // Act
+        slowQueryLog.record("select * from account", 1_000);
+        slowQueryLog.record("select * from category", 1_000);
+        slowQueryLog.record("select * from credit_card", 1_000);
+
+        // Assert
+        var statistics = slowQueryLog.statistics();
+        assertEquals(2, statistics.size());
+        assertEquals(SlowQueryLog.OTHER, statistics.get(0).fingerprint());
+        assertEquals(2, statistics.get(0).count());
+    }
+
+    @Test
+    void dataSourceTimesEveryKindOfStatement() throws Exception {
+        // Arrange
+        var target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:slow-query-log;DB_CLOSE_DELAY=-1");
+        var slowQueryLog = new SlowQueryLog(Duration.ofSeconds(1), 1, 500, 2_000);
+        var dataSource = new StatementTimingDataSource(target, slowQueryLog);
+
+        // Act
+        try (var connection = dataSource.getConnection()) {
+            try (var statement = connection.createStatement()) {
+                statement.execute("create table note (id bigint, text varchar(50))");
+            }
+            try (var statement = connection.prepareStatement("insert into note values (?, ?)")) {
+                statement.setLong(1, 1);
+                statement.setString(2, "secret");
+                statement.executeUpdate();
+            }
+            try (var statement = connection.prepareStatement("select text from note where id = ?")) {
+                statement.setLong(1, 1);
+                try (var resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    assertEquals("secret", resultSet.getString(1));
+                }
+            }
+        }
+
+        // Assert
+        var fingerprints = slowQueryLog.statistics().stream().map(SlowQueryLog.StatementStatistics::fingerprint).toList();
+        assertEquals(3, fingerprints.size());
+        assertTrue(fingerprints.contains("insert into note values (?, ?)"));
+        assertTrue(fingerprints.contains("select text from note where id = ?"));
+    }
+
+}
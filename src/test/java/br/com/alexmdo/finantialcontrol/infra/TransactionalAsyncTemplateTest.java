@@ -0,0 +1,131 @@
+package br.com.alexmdo.finantialcontrol.infra;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a query that would take minutes on H2 and checks it is stopped on the database side,
+ * either once the deadline passes or by cancelling the future.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionalAsyncTemplateTest {
+
+    private static final String SLOW_QUERY = "select sum(a.x * b.x) from system_range(1, 1000000) a, system_range(1, 1000000) b";
+
+    @Autowired
+    private TransactionalAsyncTemplate transactionalAsyncTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void passingTheDeadlineCancelsTheStatement() throws Exception {
+        var stopped = new CompletableFuture<Throwable>();
+        CompletableFuture<Object> future;
+        try (var scope = Deadline.after(Duration.ofMillis(500)).bind()) {
+            future = transactionalAsyncTemplate.supplyReadOnlyAsync(() -> {
+                try {
+                    return runSlowQuery();
+                } catch (RuntimeException e) {
+                    stopped.complete(e);
+                    throw e;
+                }
+            });
+        }
+
+        var exception = assertThrows(CompletionException.class, () -> future.orTimeout(10, TimeUnit.SECONDS).join());
+        assertTrue(exception.getCause() instanceof DeadlineExceededException);
+        assertNotNull(stopped.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancellingTheFutureCancelsTheStatement() throws Exception {
+        var started = new CountDownLatch(1);
+        var stopped = new CompletableFuture<Throwable>();
+        var future = transactionalAsyncTemplate.supplyReadOnlyAsync(() -> {
+            started.countDown();
+            try {
+                return runSlowQuery();
+            } catch (RuntimeException e) {
+                stopped.complete(e);
+                throw e;
+            }
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // Give the statement time to reach the database
+        Thread.sleep(300);
+        future.cancel(true);
+
+        assertNotNull(stopped.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void completingBeforeTheDeadlineDropsItsTimer() {
+        var pendingBefore = transactionalAsyncTemplate.pendingDeadlineTimers();
+        CompletableFuture<Object> future;
+        try (var scope = Deadline.after(Duration.ofMinutes(5)).bind()) {
+            future = transactionalAsyncTemplate.supplyReadOnlyAsync(() -> "done");
+        }
+
+        future.join();
+        // The timer is dropped by a completion stage, which may run just after join returns
+        var waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (transactionalAsyncTemplate.pendingDeadlineTimers() > pendingBefore && System.nanoTime() < waitUntil) {
+            Thread.onSpinWait();
+        }
+        assertEquals(pendingBefore, transactionalAsyncTemplate.pendingDeadlineTimers());
+    }
+
+    @Test
+    void expiredDeadlineSkipsTheWork() {
+        var ran = new AtomicBoolean();
+        CompletableFuture<Object> future;
+        try (var scope = Deadline.after(Duration.ZERO).bind()) {
+            future = transactionalAsyncTemplate.supplyReadOnlyAsync(() -> ran.getAndSet(true));
+        }
+
+        var exception = assertThrows(CompletionException.class, future::join);
+        assertTrue(exception.getCause() instanceof DeadlineExceededException);
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void requestDeadlineFollowsTheWorkOntoTheExecutor() {
+        var request = Deadline.after(Duration.ofSeconds(5));
+        CompletableFuture<Deadline> future;
+        try (var scope = request.bindRequest();
+             var narrower = Deadline.after(Duration.ofSeconds(1)).bind()) {
+            future = transactionalAsyncTemplate
+                    .supplyReadOnlyAsync(() -> "first")
+                    .thenCompose(__ -> transactionalAsyncTemplate.supplyReadOnlyAsync(Deadline::current));
+        }
+
+        assertSame(request, future.join());
+        assertNull(Deadline.current());
+    }
+
+    private Object runSlowQuery() {
+        return entityManager.createNativeQuery(SLOW_QUERY).getSingleResult();
+    }
+
+}